@@ -6,10 +6,11 @@ const API_BASE_URL = import.meta.env.VITE_API_BASE_URL || 'http://65.0.178.32:80
 /**
  * Generic API request handler with error handling
  * @param {string} endpoint - API endpoint (without base URL)
- * @param {Object} options - Fetch options (method, headers, body, etc.)
- * @returns {Promise} - Response data or throws error
+ * @param {Object} options - Fetch options (method, headers, body, etc.); withHeaders: true also returns the response headers
+ * @returns {Promise} - Response data (or { data, headers } with withHeaders) or throws error
  */
-const apiRequest = async (endpoint, options = {}) => {
+const apiRequest = async (endpoint, requestOptions = {}) => {
+  const { withHeaders, ...options } = requestOptions
   const url = `${API_BASE_URL}${endpoint}`
   
   // Add timeout support - increased to 60 seconds for route creation (backend can be slow)
@@ -76,11 +77,11 @@ const apiRequest = async (endpoint, options = {}) => {
     
     // Handle empty responses (like 204 No Content)
     const contentType = response.headers.get('content-type')
-    if (contentType && contentType.includes('application/json')) {
-      return await response.json()
-    }
+    const data = contentType && contentType.includes('application/json')
+      ? await response.json()
+      : null
     
-    return null
+    return withHeaders ? { data, headers: response.headers } : data
   } catch (error) {
     clearTimeout(timeoutId)
     
@@ -169,8 +170,22 @@ export const shipmentApi = {
 }
 
 // Delivery API endpoints
+// The list is paged server-side (at most 500 rows per page); X-Has-More says whether another page follows
+const DELIVERY_PAGE_SIZE = 500
+
 export const deliveryApi = {
-  getAll: () => apiRequest('/deliveries'),
+  getPage: async (page = 0, size = DELIVERY_PAGE_SIZE) => {
+    const { data, headers } = await apiRequest(`/deliveries?page=${page}&size=${size}`, { withHeaders: true })
+    return { items: data || [], hasMore: headers.get('X-Has-More') === 'true' }
+  },
+  getAll: async () => {
+    const deliveries = []
+    for (let page = 0; ; page++) {
+      const { items, hasMore } = await deliveryApi.getPage(page)
+      deliveries.push(...items)
+      if (!hasMore) return deliveries
+    }
+  },
   getById: (id) => apiRequest(`/deliveries/${id}`),
   create: (data) => apiRequest('/deliveries', {
     method: 'POST',
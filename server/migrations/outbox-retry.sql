@@ -0,0 +1,14 @@
+-- Outbox retry state (status, available_at)
+--
+-- The relay now leases rows while sending, backs failed rows off and parks them after kafka.outbox.max-attempts.
+-- ddl-auto=update cannot add the NOT NULL columns to a table that already holds rows, so apply this before
+-- deploying the new build. Safe to re-run.
+
+BEGIN;
+ALTER TABLE outbox_event ADD COLUMN IF NOT EXISTS status VARCHAR(20) NOT NULL DEFAULT 'PENDING';
+ALTER TABLE outbox_event ADD COLUMN IF NOT EXISTS available_at TIMESTAMP NOT NULL DEFAULT now();
+CREATE INDEX IF NOT EXISTS idx_outbox_event_key_id ON outbox_event(event_key, outbox_id);
+COMMIT;
+
+-- Parked rows are kept for inspection. After fixing the cause, send them again with:
+--   UPDATE outbox_event SET status = 'PENDING', attempts = 0, available_at = now() WHERE status = 'PARKED';
@@ -0,0 +1,36 @@
+-- Pooled-sequence ID generation (allocationSize = 50)
+--
+-- Entities now take ids from <table>_seq in blocks of 50 instead of relying on IDENTITY/SERIAL columns,
+-- which lets Hibernate batch inserts. Each sequence must INCREMENT BY 50 (matching allocationSize) and
+-- start above the current MAX(id): Hibernate treats the value it reads as the top of its block and hands out
+-- the 49 ids below it, so the first value is set to MAX(id) + 50.
+--
+-- Safe to re-run. Apply before deploying the new build; if ddl-auto=update already created the sequences
+-- at startup, running this afterwards (before taking writes) moves them past the existing rows.
+-- The old SERIAL/IDENTITY defaults are left in place; Hibernate always supplies the id explicitly.
+-- outbox_event and replay_checkpoint keep IDENTITY and are not touched here.
+
+CREATE OR REPLACE FUNCTION pg_temp.align_pooled_sequence(seq TEXT, tbl TEXT, id_col TEXT) RETURNS VOID AS $$
+DECLARE
+    max_id BIGINT;
+BEGIN
+    EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I START WITH 1 INCREMENT BY 50', seq);
+    EXECUTE format('ALTER SEQUENCE %I INCREMENT BY 50', seq);
+    EXECUTE format('SELECT COALESCE(MAX(%I), 0) FROM %I', id_col, tbl) INTO max_id;
+    -- Never hand out a block twice: stay past both the table and anything the sequence already returned
+    PERFORM setval(seq, GREATEST(max_id,
+                                 COALESCE((SELECT last_value FROM pg_sequences
+                                           WHERE schemaname = current_schema() AND sequencename = seq), 0)) + 50,
+                   false);
+END;
+$$ LANGUAGE plpgsql;
+
+BEGIN;
+SELECT pg_temp.align_pooled_sequence('vendor_seq',       'vendor',       'vendor_id');
+SELECT pg_temp.align_pooled_sequence('route_seq',        'route',        'route_id');
+SELECT pg_temp.align_pooled_sequence('shipment_seq',     'shipment',     'shipment_id');
+SELECT pg_temp.align_pooled_sequence('cargo_seq',        'cargo',        'cargo_id');
+SELECT pg_temp.align_pooled_sequence('deliveries_seq',   'deliveries',   'delivery_id');
+SELECT pg_temp.align_pooled_sequence('users_seq',        'users',        'id');
+SELECT pg_temp.align_pooled_sequence('activity_log_seq', 'activity_log', 'activity_id');
+COMMIT;
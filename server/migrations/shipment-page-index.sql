@@ -0,0 +1,8 @@
+-- Shipment keyset pagination moves from (updated_at, shipment_id) to (created_at, shipment_id)
+--
+-- GET /api/shipments/page now orders by the immutable created_at, so an update no longer moves a row between
+-- pages while a client is scanning. ddl-auto=update creates the new index but never drops the old one.
+-- Run outside a transaction block (CONCURRENTLY); safe to re-run.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_shipment_created_at_id ON shipment (created_at DESC, shipment_id DESC);
+DROP INDEX CONCURRENTLY IF EXISTS idx_shipment_updated_at_id;
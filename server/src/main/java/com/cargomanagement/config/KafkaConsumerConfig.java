@@ -0,0 +1,89 @@
+package com.cargomanagement.config;
+
+import com.cargomanagement.service.KafkaDeadLetterService;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+
+import java.util.Properties;
+import java.util.UUID;
+
+@Configuration
+public class KafkaConsumerConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaConsumerConfig.class);
+
+    /**
+     * Same settings as the auto-configured listener factory (spring.kafka.consumer.* / spring.kafka.listener.*),
+     * but hands each poll to the listener as one list. Batch size is bounded by spring.kafka.consumer.max-poll-records;
+     * per-topic concurrency is set on each @KafkaListener.
+     * With kafka.consumer.websocket.group-per-node=true each node joins its own group, which is how several nodes
+     * running the simple broker each receive every event; with websocket.broker.mode=relay keep the shared group.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> batchKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ObjectProvider<ConsumerFactory<Object, Object>> consumerFactory,
+            DefaultErrorHandler listenerErrorHandler,
+            @Value("${kafka.consumer.websocket.group-per-node:false}") boolean groupPerNode,
+            @Value("${websocket.node-id:${HOSTNAME:}}") String nodeId) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory.getObject());
+        factory.setBatchListener(true);
+        factory.setCommonErrorHandler(listenerErrorHandler);
+
+        if (groupPerNode) {
+            // Every node sees every event for its own WebSocket sessions; a new node starts at the live end of the log
+            String groupId = "supply-chain-group-ws-" + (nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId);
+            log.info("WebSocket listeners use per-node consumer group {}", groupId);
+            factory.setContainerCustomizer(container -> {
+                container.getContainerProperties().setGroupId(groupId);
+                Properties overrides = new Properties();
+                overrides.setProperty(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+                container.getContainerProperties().setKafkaConsumerProperties(overrides);
+            });
+        }
+        return factory;
+    }
+
+    /**
+     * Records before the failed one in a batch are committed; the failed record is retried with bounded
+     * exponential backoff and then published to <topic>.DLT (partition chosen by key) so it cannot stall
+     * the partition. Dead letters are inspected and replayed through KafkaDeadLetterService.
+     * With per-node groups every node consumes the same record, so a failure is logged and skipped instead;
+     * dead-lettering it would put one copy on the DLT per node.
+     */
+    @Bean
+    public DefaultErrorHandler listenerErrorHandler(
+            KafkaTemplate<String, String> kafkaTemplate,
+            @Value("${kafka.consumer.websocket.group-per-node:false}") boolean groupPerNode,
+            @Value("${kafka.consumer.retry.max-retries:3}") int maxRetries,
+            @Value("${kafka.consumer.retry.initial-interval-ms:500}") long initialIntervalMs,
+            @Value("${kafka.consumer.retry.multiplier:2.0}") double multiplier,
+            @Value("${kafka.consumer.retry.max-interval-ms:5000}") long maxIntervalMs) {
+        ConsumerRecordRecoverer recoverer = groupPerNode
+            ? (record, exception) -> log.error("Skipping {}-{}@{} after {} retries: {}", record.topic(),
+                                               record.partition(), record.offset(), maxRetries, exception.getMessage())
+            : new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, exception) -> new TopicPartition(record.topic() + KafkaDeadLetterService.DLT_SUFFIX, -1));
+
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(maxRetries);
+        backOff.setInitialInterval(initialIntervalMs);
+        backOff.setMultiplier(multiplier);
+        backOff.setMaxInterval(maxIntervalMs);
+        return new DefaultErrorHandler(recoverer, backOff);
+    }
+}
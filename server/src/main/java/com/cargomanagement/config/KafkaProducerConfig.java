@@ -0,0 +1,53 @@
+package com.cargomanagement.config;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Producer tuning on top of the spring.kafka.producer.* settings.
+ * kafka.producer.mode=throughput trades a few milliseconds of latency for larger, compressed batches,
+ * which is what lets the outbox relay absorb write bursts; the default mode keeps the client defaults.
+ */
+@Configuration
+public class KafkaProducerConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaProducerConfig.class);
+
+    @Bean
+    public DefaultKafkaProducerFactoryCustomizer producerTuningCustomizer(
+            @Value("${kafka.producer.mode:default}") String mode,
+            @Value("${kafka.producer.throughput.linger-ms:20}") int lingerMs,
+            @Value("${kafka.producer.throughput.batch-size:131072}") int batchSize,
+            @Value("${kafka.producer.throughput.compression-type:lz4}") String compressionType,
+            @Value("${kafka.producer.throughput.buffer-memory:67108864}") long bufferMemory,
+            @Value("${kafka.producer.max-block-ms:5000}") long maxBlockMs) {
+        return factory -> {
+            Map<String, Object> configs = new HashMap<>();
+            // Idempotence in every mode: retries never duplicate or reorder records within a partition
+            configs.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+            configs.put(ProducerConfig.ACKS_CONFIG, "all");
+            // Bound how long send() may block when the buffer is full instead of stalling the relay for a minute
+            configs.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMs);
+
+            if ("throughput".equalsIgnoreCase(mode)) {
+                configs.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+                configs.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+                configs.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+                configs.put(ProducerConfig.BUFFER_MEMORY_CONFIG, bufferMemory);
+            } else if (!"default".equalsIgnoreCase(mode)) {
+                throw new IllegalArgumentException("Unknown kafka.producer.mode: " + mode + " (expected default or throughput)");
+            }
+
+            factory.updateConfigs(configs);
+            log.info("Kafka producer mode '{}': {}", mode, configs);
+        };
+    }
+}
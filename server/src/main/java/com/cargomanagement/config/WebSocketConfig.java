@@ -1,19 +1,80 @@
 package com.cargomanagement.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    @Value("${websocket.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs;
+
+    @Value("${websocket.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Value("${websocket.outbound.pool-size:8}")
+    private int outboundPoolSize;
+
+    @Value("${websocket.outbound.queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
+    // simple: in-process broker, each node reaches only its own sessions (pair with per-node Kafka groups when scaled out)
+    // relay: every node relays to one external STOMP broker (RabbitMQ, ActiveMQ, ...) that reaches all sessions
+    @Value("${websocket.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${websocket.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${websocket.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${websocket.relay.client-login:guest}")
+    private String relayClientLogin;
+
+    @Value("${websocket.relay.client-passcode:guest}")
+    private String relayClientPasscode;
+
+    @Value("${websocket.relay.system-login:guest}")
+    private String relaySystemLogin;
+
+    @Value("${websocket.relay.system-passcode:guest}")
+    private String relaySystemPasscode;
+
+    @Value("${websocket.relay.virtual-host:}")
+    private String relayVirtualHost;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        // Enable a simple memory-based message broker to send messages to clients
-        config.enableSimpleBroker("/topic");
+        if ("relay".equalsIgnoreCase(brokerMode)) {
+            // Server-side selectors are a simple-broker feature; with a relay, filtering is up to the external broker
+            StompBrokerRelayRegistration relay = config.enableStompBrokerRelay("/topic")
+                  .setRelayHost(relayHost)
+                  .setRelayPort(relayPort)
+                  .setClientLogin(relayClientLogin)
+                  .setClientPasscode(relayClientPasscode)
+                  .setSystemLogin(relaySystemLogin)
+                  .setSystemPasscode(relaySystemPasscode);
+            if (!relayVirtualHost.isBlank()) {
+                relay.setVirtualHost(relayVirtualHost);
+            }
+        } else if ("simple".equalsIgnoreCase(brokerMode)) {
+            // Enable a simple memory-based message broker to send messages to clients
+            // Per-entity destinations (/topic/shipments/{id}, /topic/routes/{id}) can be subscribed with a pattern
+            // plus a "selector" header, e.g. headers.status == 'In Transit', evaluated against the message headers
+            config.enableSimpleBroker("/topic")
+                  .setSelectorHeaderName("selector");
+        } else {
+            throw new IllegalArgumentException("Unknown websocket.broker.mode: " + brokerMode + " (expected simple or relay)");
+        }
         // Prefix for messages from clients
         config.setApplicationDestinationPrefixes("/app");
     }
@@ -29,4 +90,21 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 )
                 .withSockJS();
     }
+
+    // A session whose unsent frames exceed the buffer limit, or whose send blocks past the time limit,
+    // is closed (SockJS clients reconnect) instead of buffering without bound on the heap
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimitMs)
+                    .setSendBufferSizeLimit(sendBufferSizeLimit);
+    }
+
+    // Bounded outbound queue: when it is full the broker drops the frame for that subscriber instead of queueing it
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                    .corePoolSize(outboundPoolSize)
+                    .maxPoolSize(outboundPoolSize)
+                    .queueCapacity(outboundQueueCapacity);
+    }
 }
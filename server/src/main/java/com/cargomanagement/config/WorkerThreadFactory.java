@@ -0,0 +1,48 @@
+package com.cargomanagement.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Thread factories for the application's own worker pools (email dispatch, event replay, SSE senders).
+ * Follows spring.threads.virtual.enabled, the same switch that moves Tomcat request handling, @Scheduled
+ * and the Kafka listener containers onto virtual threads; it only takes effect on a Java 21+ runtime.
+ * Pool sizes keep bounding concurrency either way, so downstream systems (SMTP, Kafka) see the same load.
+ */
+@Component
+public class WorkerThreadFactory {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkerThreadFactory.class);
+
+    private final boolean virtual;
+
+    public WorkerThreadFactory(Environment environment) {
+        this.virtual = Threading.VIRTUAL.isActive(environment);
+        if (virtual) {
+            log.info("Worker pools use virtual threads");
+        } else if (environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            log.warn("spring.threads.virtual.enabled is set but the runtime is Java {}; virtual threads need Java 21+",
+                     Runtime.version().feature());
+        }
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    public ThreadFactory create(String threadNamePrefix) {
+        if (virtual) {
+            return new VirtualThreadTaskExecutor(threadNamePrefix).getVirtualThreadFactory();
+        }
+        CustomizableThreadFactory factory = new CustomizableThreadFactory(threadNamePrefix);
+        factory.setDaemon(true);
+        return factory;
+    }
+}
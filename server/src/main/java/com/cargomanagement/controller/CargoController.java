@@ -1,15 +1,24 @@
 package com.cargomanagement.controller;
 
 import com.cargomanagement.dto.CargoCreateRequest;
+import com.cargomanagement.dto.CargoListItem;
+import com.cargomanagement.dto.BulkResult;
+import com.cargomanagement.models.ActivityLog;
 import com.cargomanagement.models.Cargo;
 import com.cargomanagement.models.Shipment;
 import com.cargomanagement.repository.CargoRepository;
 import com.cargomanagement.repository.ShipmentRepository;
+import com.cargomanagement.service.ActivityLogService;
+import com.cargomanagement.service.BulkCreateService;
+import com.cargomanagement.service.DashboardMetricsService;
 import com.cargomanagement.service.KafkaProducerService;
 import com.cargomanagement.service.NotificationService;
+import com.cargomanagement.util.EntityEvents;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -29,23 +38,33 @@ public class CargoController {
     private final ShipmentRepository shipmentRepository;
     private final KafkaProducerService kafkaProducerService;
     private final NotificationService notificationService;
+    private final DashboardMetricsService dashboardMetricsService;
+    private final ActivityLogService activityLogService;
+    private final BulkCreateService bulkCreateService;
 
     @Autowired
     public CargoController(CargoRepository cargoRepository,
                            ShipmentRepository shipmentRepository,
                            KafkaProducerService kafkaProducerService,
-                           NotificationService notificationService) {
+                           NotificationService notificationService,
+                           DashboardMetricsService dashboardMetricsService,
+                           ActivityLogService activityLogService,
+                           BulkCreateService bulkCreateService) {
         this.cargoRepository = cargoRepository;
         this.shipmentRepository = shipmentRepository;
         this.kafkaProducerService = kafkaProducerService;
         this.notificationService = notificationService;
+        this.dashboardMetricsService = dashboardMetricsService;
+        this.activityLogService = activityLogService;
+        this.bulkCreateService = bulkCreateService;
     }
 
     @GetMapping
-    public List<Cargo> getAllCargo() {
-        return cargoRepository.findAllWithShipment(); // Use the new method here
+    public List<CargoListItem> getAllCargo() {
+        return cargoRepository.findAllListItems();
     }
 
+    @Transactional
     @PostMapping(consumes = "application/json", produces = "application/json")
     public ResponseEntity<?> createCargo(@RequestBody CargoCreateRequest request) {
         try {
@@ -67,21 +86,27 @@ public class CargoController {
                 cargo.setShipment(shipment);
             }
             
-            Cargo savedCargo = cargoRepository.save(cargo);
-            String message = "Cargo created: ID=" + savedCargo.getCargoId() + 
-                           ", Type=" + savedCargo.getType() + 
-                           ", Weight=" + savedCargo.getWeight() + "kg" + 
-                           ", Value=$" + savedCargo.getValue();
-            kafkaProducerService.sendMessage("cargo-events", message);
+            Cargo savedCargo = cargoRepository.saveAndFlush(cargo);
+            dashboardMetricsService.recordCargoCreated();
+            activityLogService.recordCargo(savedCargo, ActivityLog.CREATED);
+            kafkaProducerService.publish("cargo-events", EntityEvents.created(savedCargo));
             notificationService.notifyCargoCreated(savedCargo);
             return ResponseEntity.ok(savedCargo);
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             System.err.println("Error creating cargo: " + e.getMessage());
             e.printStackTrace();
             return ResponseEntity.status(500).body("Error creating cargo: " + e.getMessage());
         }
     }
 
+    // Manifest upload: validated as a whole, written in chunks; the report has one entry per payload item
+    @PostMapping(value = "/batch", consumes = "application/json", produces = "application/json")
+    public ResponseEntity<BulkResult> createCargoBatch(@RequestBody List<CargoCreateRequest> requests) {
+        BulkResult result = bulkCreateService.createCargo(requests);
+        return ResponseEntity.status(bulkCreateService.responseStatus(result)).body(result);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Cargo> getCargoById(@PathVariable Long id) {
         Cargo cargo = cargoRepository.findById(id)
@@ -89,11 +114,13 @@ public class CargoController {
         return ResponseEntity.ok(cargo);
     }
 
+    @Transactional
     @PutMapping("/{id}")
     public ResponseEntity<?> updateCargo(@PathVariable Long id, @RequestBody CargoCreateRequest request) {
         try {
             Cargo cargo = cargoRepository.findById(id)
                     .orElseThrow(() -> new RuntimeException("Cargo not found with id: " + id));
+            Map<String, Object> before = EntityEvents.snapshot(cargo);
 
             // Update all fields
             cargo.setType(request.getType());
@@ -112,18 +139,20 @@ public class CargoController {
                 cargo.setShipment(null);
             }
 
-            final Cargo updatedCargo = cargoRepository.save(cargo);
-            String message = "Cargo updated: ID=" + id + ", Type=" + updatedCargo.getType();
-            kafkaProducerService.sendMessage("cargo-events", message);
+            final Cargo updatedCargo = cargoRepository.saveAndFlush(cargo);
+            activityLogService.recordCargo(updatedCargo, ActivityLog.UPDATED);
+            kafkaProducerService.publish("cargo-events", EntityEvents.updated(before, updatedCargo));
             notificationService.notifyCargoUpdated(updatedCargo);
             return ResponseEntity.ok(updatedCargo);
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             System.err.println("Error updating cargo: " + e.getMessage());
             e.printStackTrace();
             return ResponseEntity.status(500).body("Error updating cargo: " + e.getMessage());
         }
     }
 
+    @Transactional
     @DeleteMapping("/{id}")
     public ResponseEntity<Map<String, Object>> deleteCargo(@PathVariable Long id) {
         try {
@@ -136,10 +165,12 @@ public class CargoController {
             }
 
             cargoRepository.delete(cargo);
+            cargoRepository.flush();
+            dashboardMetricsService.recordCargoDeleted();
+            activityLogService.recordCargo(cargo, ActivityLog.DELETED);
 
             // Publish to Kafka
-            String message = "Cargo deleted: ID=" + id;
-            kafkaProducerService.sendMessage("cargo-events", message);
+            kafkaProducerService.publish("cargo-events", EntityEvents.deleted(cargo));
             notificationService.notifyCargoDeleted(cargo);
 
             // Return success response with JSON body
@@ -150,6 +181,7 @@ public class CargoController {
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("success", false);
             errorResponse.put("message", "Error deleting cargo: " + e.getMessage());
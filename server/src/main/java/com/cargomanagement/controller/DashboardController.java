@@ -2,8 +2,11 @@ package com.cargomanagement.controller;
 
 import org.springframework.web.bind.annotation.*;
 import org.springframework.beans.factory.annotation.Autowired;
-import com.cargomanagement.repository.*;
+import org.springframework.http.ResponseEntity;
 import com.cargomanagement.models.*;
+import com.cargomanagement.service.ActivityLogService;
+import com.cargomanagement.service.DashboardMetricsService;
+import com.cargomanagement.util.KeysetCursor;
 
 import java.util.*;
 
@@ -13,72 +16,106 @@ import java.util.*;
     "http://localhost:5173", 
     "http://localhost:5174",
     "http://cargo-flow.s3-website.ap-south-1.amazonaws.com"
-})
+}, exposedHeaders = "X-Next-Cursor")
 public class DashboardController {
 
+    private static final int MAX_ACTIVITY_LIMIT = 100;
+
     @Autowired
-    private ShipmentRepository shipmentRepository;
-    
-    @Autowired
-    private CargoRepository cargoRepository;
-    
-    @Autowired
-    private RouteRepository routeRepository;
+    private ActivityLogService activityLogService;
     
     @Autowired
-    private VendorRepository vendorRepository;
+    private DashboardMetricsService dashboardMetricsService;
 
     @GetMapping("/metrics")
     public Map<String, Object> getDashboardMetrics() {
-        Map<String, Object> metrics = new HashMap<>();
-        
-        // Count metrics
-        metrics.put("totalShipments", shipmentRepository.count());
-        metrics.put("activeCargo", cargoRepository.count());
-        metrics.put("availableRoutes", routeRepository.count());
-        metrics.put("partnerVendors", vendorRepository.count());
-        
-        // Status distribution
-        Map<String, Long> shipmentStatuses = new HashMap<>();
-        List<Shipment> shipments = shipmentRepository.findAll();
-        for (Shipment shipment : shipments) {
-            String status = shipment.getStatus();
-            shipmentStatuses.put(status, shipmentStatuses.getOrDefault(status, 0L) + 1);
-        }
-        metrics.put("shipmentStatuses", shipmentStatuses);
-        
-        // Route status distribution
-        Map<String, Long> routeStatuses = new HashMap<>();
-        List<Route> routes = routeRepository.findAll();
-        for (Route route : routes) {
-            String status = route.getStatus();
-            routeStatuses.put(status, routeStatuses.getOrDefault(status, 0L) + 1);
-        }
-        metrics.put("routeStatuses", routeStatuses);
-        
-        return metrics;
+        // Served from in-memory counters
+        return dashboardMetricsService.getMetrics();
     }
 
+    // Newest-first page of the activity log; the X-Next-Cursor header is passed back as ?cursor= for older entries
     @GetMapping("/recent-activities")
-    public List<Map<String, Object>> getRecentActivities() {
+    public ResponseEntity<List<Map<String, Object>>> getRecentActivities(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String cursor) {
+        if (limit < 1 || limit > MAX_ACTIVITY_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_ACTIVITY_LIMIT);
+        }
+        KeysetCursor before = cursor != null && !cursor.isBlank() ? KeysetCursor.decode(cursor) : null;
+
+        // One extra row tells whether an older page exists
+        List<ActivityLog> entries = activityLogService.findNewest(before, limit + 1);
+        boolean hasMore = entries.size() > limit;
+        if (hasMore) {
+            entries = entries.subList(0, limit);
+        }
         List<Map<String, Object>> activities = new ArrayList<>();
-        
-        // Get recent shipments (get all and limit in code for simplicity)
-        List<Shipment> allShipments = shipmentRepository.findAll();
-        List<Shipment> recentShipments = allShipments.subList(0, Math.min(10, allShipments.size()));
-        
-        for (Shipment shipment : recentShipments) {
-            Map<String, Object> activity = new HashMap<>();
-            activity.put("id", shipment.getShipmentId().toString());
-            activity.put("shipmentId", "SH" + String.format("%03d", shipment.getShipmentId()));
-            activity.put("action", getActionFromStatus(shipment.getStatus()));
-            activity.put("timestamp", "recently");
-            activity.put("type", getActivityType(shipment.getStatus()));
-            activity.put("status", shipment.getStatus().toLowerCase().replace(" ", "-"));
-            activities.add(activity);
+        for (ActivityLog entry : entries) {
+            activities.add(toActivity(entry));
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (hasMore) {
+            ActivityLog last = entries.get(entries.size() - 1);
+            response.header("X-Next-Cursor", KeysetCursor.encode(last.getOccurredAt(), last.getActivityId()));
+        }
+        return response.body(activities);
+    }
+
+    private Map<String, Object> toActivity(ActivityLog entry) {
+        Map<String, Object> activity = new HashMap<>();
+        activity.put("activityId", entry.getActivityId());
+        activity.put("id", entry.getEntityId().toString());
+        activity.put("timestamp", entry.getOccurredAt().toString());
+        activity.put("details", entry.getDetails());
+        if (entry.getStatus() != null) {
+            activity.put("status", entry.getStatus().toLowerCase().replace(" ", "-"));
+        }
+
+        switch (entry.getEntityType()) {
+            case ActivityLog.SHIPMENT:
+                activity.put("shipmentId", "SH" + String.format("%03d", entry.getEntityId()));
+                if (ActivityLog.UPDATED.equals(entry.getAction()) && entry.getStatus() != null) {
+                    activity.put("action", getActionFromStatus(entry.getStatus()));
+                    activity.put("type", getActivityType(entry.getStatus()));
+                } else {
+                    activity.put("action", getActionText(entry.getAction()));
+                    activity.put("type", "shipment");
+                }
+                break;
+            case ActivityLog.CARGO:
+                activity.put("cargoId", entry.getEntityId());
+                activity.put("action", getActionText(entry.getAction()));
+                activity.put("type", "cargo");
+                break;
+            case ActivityLog.ROUTE:
+                activity.put("routeId", entry.getEntityId());
+                activity.put("action", getActionText(entry.getAction()));
+                activity.put("type", "route");
+                break;
+            case ActivityLog.VENDOR:
+                activity.put("vendorId", entry.getEntityId());
+                activity.put("action", getActionText(entry.getAction()));
+                activity.put("type", "vendor");
+                break;
+            default:
+                activity.put("deliveryId", entry.getEntityId());
+                activity.put("action", getActionText(entry.getAction()));
+                activity.put("type", "delivery");
+                break;
+        }
+        return activity;
+    }
+
+    private String getActionText(String action) {
+        switch (action) {
+            case ActivityLog.CREATED:
+                return "has been created";
+            case ActivityLog.DELETED:
+                return "has been deleted";
+            default:
+                return "has been updated";
         }
-        
-        return activities;
     }
 
     private String getActionFromStatus(String status) {
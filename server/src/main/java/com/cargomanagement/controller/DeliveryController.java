@@ -1,18 +1,25 @@
 package com.cargomanagement.controller;
 
+import com.cargomanagement.models.ActivityLog;
 import com.cargomanagement.models.Delivery;
 import com.cargomanagement.repository.DeliveryRepository;
+import com.cargomanagement.service.ActivityLogService;
+import com.cargomanagement.service.DeliveryReconciler;
 import com.cargomanagement.service.KafkaProducerService;
 import com.cargomanagement.service.NotificationService;
+import com.cargomanagement.util.EntityEvents;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/deliveries")
@@ -20,50 +27,58 @@ import java.util.stream.Collectors;
     "http://localhost:5173", 
     "http://localhost:5174",
     "http://cargo-flow.s3-website.ap-south-1.amazonaws.com"
-})
+}, exposedHeaders = "X-Has-More")
 public class DeliveryController {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final DeliveryRepository deliveryRepository;
     private final KafkaProducerService kafkaProducerService;
     private final NotificationService notificationService;
+    private final ActivityLogService activityLogService;
+    private final DeliveryReconciler deliveryReconciler;
 
     @Autowired
     public DeliveryController(DeliveryRepository deliveryRepository,
                               KafkaProducerService kafkaProducerService,
-                              NotificationService notificationService) {
+                              NotificationService notificationService,
+                              ActivityLogService activityLogService,
+                              DeliveryReconciler deliveryReconciler) {
         this.deliveryRepository = deliveryRepository;
         this.kafkaProducerService = kafkaProducerService;
         this.notificationService = notificationService;
+        this.activityLogService = activityLogService;
+        this.deliveryReconciler = deliveryReconciler;
     }
 
     @GetMapping
-    public List<Delivery> getAllDeliveries() {
-        // Only return deliveries where the associated shipment is actually "Delivered"
-        return deliveryRepository.findAll().stream()
-                .filter(delivery -> delivery.getShipment() != null && 
-                        "Delivered".equals(delivery.getShipment().getStatus()))
-                .collect(Collectors.toList());
+    public ResponseEntity<List<Delivery>> getAllDeliveries(@RequestParam(defaultValue = "0") int page,
+                                                           @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+        // Only return deliveries where the associated shipment is actually "Delivered" (filtered in SQL);
+        // always paged, X-Has-More tells whether the next page has rows
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        Slice<Delivery> slice = deliveryRepository.findSliceByShipmentStatus("Delivered", PageRequest.of(page, size));
+        return ResponseEntity.ok()
+                .header("X-Has-More", String.valueOf(slice.hasNext()))
+                .body(slice.getContent());
     }
 
-    @GetMapping("/cleanup")
+    // Runs the batched reconciler immediately; it also runs on a schedule
+    @PostMapping("/cleanup")
     public ResponseEntity<String> cleanupInconsistentDeliveries() {
-        // Find and remove deliveries where shipment status is not "Delivered"
-        List<Delivery> inconsistentDeliveries = deliveryRepository.findAll().stream()
-                .filter(delivery -> delivery.getShipment() != null && 
-                        !"Delivered".equals(delivery.getShipment().getStatus()))
-                .collect(Collectors.toList());
-        
-        int deletedCount = inconsistentDeliveries.size();
-        deliveryRepository.deleteAll(inconsistentDeliveries);
-        
+        int deletedCount = deliveryReconciler.reconcile();
         return ResponseEntity.ok("Cleaned up " + deletedCount + " inconsistent delivery records");
     }
 
+    @Transactional
     @PostMapping
     public Delivery createDelivery(@RequestBody Delivery delivery) {
         Delivery savedDelivery = deliveryRepository.save(delivery);
-        String message = "Delivery created: ID=" + savedDelivery.getDeliveryId() + ", Recipient=" + savedDelivery.getRecipient();
-        kafkaProducerService.sendMessage("delivery-events", message);
+        activityLogService.recordDelivery(savedDelivery, ActivityLog.CREATED);
+        kafkaProducerService.publish("delivery-events", EntityEvents.created(savedDelivery));
         notificationService.notifyDeliveryEvent(savedDelivery, "Created");
         return savedDelivery;
     }
@@ -75,22 +90,25 @@ public class DeliveryController {
         return ResponseEntity.ok(delivery);
     }
 
+    @Transactional
     @PutMapping("/{id}")
     public ResponseEntity<Delivery> updateDelivery(@PathVariable Long id, @RequestBody Delivery deliveryDetails) {
         Delivery delivery = deliveryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Delivery not found with id: " + id));
+        Map<String, Object> before = EntityEvents.snapshot(delivery);
 
         delivery.setShipment(deliveryDetails.getShipment());
         delivery.setActualDeliveryDate(deliveryDetails.getActualDeliveryDate());
         delivery.setRecipient(deliveryDetails.getRecipient());
 
         final Delivery updatedDelivery = deliveryRepository.save(delivery);
-        String message = "Delivery updated: ID=" + id + ", Recipient=" + updatedDelivery.getRecipient();
-        kafkaProducerService.sendMessage("delivery-events", message);
+        activityLogService.recordDelivery(updatedDelivery, ActivityLog.UPDATED);
+        kafkaProducerService.publish("delivery-events", EntityEvents.updated(before, updatedDelivery));
         notificationService.notifyDeliveryEvent(updatedDelivery, "Updated");
         return ResponseEntity.ok(updatedDelivery);
     }
 
+    @Transactional
     @DeleteMapping("/{id}")
     public ResponseEntity<Map<String, Object>> deleteDelivery(@PathVariable Long id) {
         try {
@@ -103,10 +121,11 @@ public class DeliveryController {
             }
 
             deliveryRepository.delete(delivery);
+            deliveryRepository.flush();
+            activityLogService.recordDelivery(delivery, ActivityLog.DELETED);
 
             // Publish to Kafka
-            String message = "Delivery deleted: ID=" + id;
-            kafkaProducerService.sendMessage("delivery-events", message);
+            kafkaProducerService.publish("delivery-events", EntityEvents.deleted(delivery));
             notificationService.notifyDeliveryEvent(delivery, "Deleted");
 
             // Return success response
@@ -117,6 +136,7 @@ public class DeliveryController {
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("success", false);
             errorResponse.put("message", "Error deleting delivery: " + e.getMessage());
@@ -0,0 +1,82 @@
+package com.cargomanagement.controller;
+
+import com.cargomanagement.service.ExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Streaming exports: GET /api/export/{shipments|cargo|deliveries}?format=csv|ndjson.
+ * Rows are written to the response as they are read from the database, so the export never sits in memory;
+ * use these instead of paging through the list endpoints. When export.max-concurrent exports are already running
+ * the request is answered 429 with a Retry-After header.
+ */
+@RestController
+@RequestMapping("/api/export")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174","http://cargo-flow.s3-website.ap-south-1.amazonaws.com"})
+public class ExportController {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportController.class);
+    private static final String RETRY_AFTER_SECONDS = "30";
+
+    private final ExportService exportService;
+    private final ObjectMapper objectMapper;
+
+    public ExportController(ExportService exportService, ObjectMapper objectMapper) {
+        this.exportService = exportService;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping("/{dataset}")
+    public void export(@PathVariable String dataset,
+                       @RequestParam(defaultValue = "csv") String format,
+                       HttpServletResponse response) throws IOException {
+        if (!exportService.isDataset(dataset)) {
+            throw new IllegalArgumentException("Unknown export dataset: " + dataset + " (expected shipments, cargo or deliveries)");
+        }
+        String resolvedFormat;
+        String extension;
+        if ("csv".equalsIgnoreCase(format)) {
+            resolvedFormat = ExportService.CSV;
+            extension = "csv";
+            response.setContentType("text/csv;charset=UTF-8");
+        } else if ("ndjson".equalsIgnoreCase(format)) {
+            resolvedFormat = ExportService.NDJSON;
+            extension = "ndjson";
+            response.setContentType("application/x-ndjson;charset=UTF-8");
+        } else {
+            throw new IllegalArgumentException("Unsupported export format: " + format + " (expected csv or ndjson)");
+        }
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + dataset + "-" + LocalDate.now() + "." + extension + "\"");
+
+        try {
+            exportService.export(dataset, resolvedFormat, response.getOutputStream());
+        } catch (ExportService.TooManyExportsException e) {
+            // Rejected before anything was written, so the download headers can still be replaced
+            response.reset();
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            Map<String, Object> body = new HashMap<>();
+            body.put("success", false);
+            body.put("message", e.getMessage());
+            objectMapper.writeValue(response.getOutputStream(), body);
+        } catch (UncheckedIOException e) {
+            // The client went away mid-download; the response is already committed, so there is nothing to send
+            log.warn("Export of {} aborted: {}", dataset, e.getCause().getMessage());
+            log.debug("Export of {} aborted", dataset, e);
+        }
+    }
+}
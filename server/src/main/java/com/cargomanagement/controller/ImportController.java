@@ -0,0 +1,95 @@
+package com.cargomanagement.controller;
+
+import com.cargomanagement.models.ActivityLog;
+import com.cargomanagement.models.ImportJob;
+import com.cargomanagement.service.ManifestImportService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Streaming manifest upload. The request body is the raw file (Content-Type text/csv or application/x-ndjson,
+ * or ?format=csv|ndjson), read as it arrives rather than buffered. The response is the final job:
+ * 200 when COMPLETED, 400 when the file is unusable (INVALID), 503 when INTERRUPTED by a dropped upload or
+ * database outage (send the same file again with ?resume={jobId} to continue after the last committed record),
+ * and 409 when another upload owns the job.
+ */
+@RestController
+@RequestMapping("/api/import")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174","http://cargo-flow.s3-website.ap-south-1.amazonaws.com"})
+public class ImportController {
+
+    private final ManifestImportService manifestImportService;
+
+    public ImportController(ManifestImportService manifestImportService) {
+        this.manifestImportService = manifestImportService;
+    }
+
+    @PostMapping("/{entity}")
+    public ResponseEntity<?> importManifest(@PathVariable String entity,
+                                            @RequestParam(required = false) String format,
+                                            @RequestParam(required = false) String fileName,
+                                            @RequestParam(required = false) String resume,
+                                            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                                            InputStream body) {
+        String entityType = entityType(entity);
+        String resolvedFormat = format(format, contentType);
+        try {
+            ImportJob job = manifestImportService.importStream(entityType, resolvedFormat, fileName, resume, body);
+            return ResponseEntity.status(status(job)).body(job);
+        } catch (IllegalStateException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+    }
+
+    // Progress of a running import (counters advance as each chunk commits)
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ImportJob> getJob(@PathVariable String jobId) {
+        ImportJob job = manifestImportService.getJob(jobId);
+        return job != null ? ResponseEntity.ok(job) : ResponseEntity.notFound().build();
+    }
+
+    private HttpStatus status(ImportJob job) {
+        switch (job.getStatus()) {
+            case ImportJob.COMPLETED:
+                return HttpStatus.OK;
+            case ImportJob.INVALID:
+                return HttpStatus.BAD_REQUEST;
+            case ImportJob.INTERRUPTED:
+                return HttpStatus.SERVICE_UNAVAILABLE;
+            default:
+                return HttpStatus.CONFLICT;  // Taken over by a resumed upload while this one ran
+        }
+    }
+
+    private String entityType(String entity) {
+        switch (entity.toLowerCase()) {
+            case "cargo":
+                return ActivityLog.CARGO;
+            case "shipments":
+                return ActivityLog.SHIPMENT;
+            default:
+                throw new IllegalArgumentException("Unknown import target: " + entity + " (expected cargo or shipments)");
+        }
+    }
+
+    private String format(String format, String contentType) {
+        String value = format != null ? format : contentType != null ? contentType : "";
+        value = value.toLowerCase();
+        if (value.equals("csv") || value.startsWith("text/csv")) {
+            return ManifestImportService.CSV;
+        }
+        if (value.equals("ndjson") || value.startsWith("application/x-ndjson") || value.startsWith("application/ndjson")) {
+            return ManifestImportService.NDJSON;
+        }
+        throw new IllegalArgumentException("Unsupported import format; use text/csv or application/x-ndjson (or ?format=csv|ndjson)");
+    }
+}
@@ -0,0 +1,49 @@
+package com.cargomanagement.controller;
+
+import com.cargomanagement.dto.DeadLetterRecord;
+import com.cargomanagement.service.KafkaDeadLetterService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/kafka/dead-letters")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174","http://cargo-flow.s3-website.ap-south-1.amazonaws.com"})
+public class KafkaDeadLetterController {
+
+    private static final int MAX_LIMIT = 500;
+
+    private final KafkaDeadLetterService kafkaDeadLetterService;
+
+    public KafkaDeadLetterController(KafkaDeadLetterService kafkaDeadLetterService) {
+        this.kafkaDeadLetterService = kafkaDeadLetterService;
+    }
+
+    // Pending (not yet replayed) records of <topic>.DLT, oldest first per partition
+    @GetMapping("/{topic}")
+    public ResponseEntity<List<DeadLetterRecord>> inspect(@PathVariable String topic,
+                                                          @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(kafkaDeadLetterService.inspect(topic, checkLimit(limit)));
+    }
+
+    @PostMapping("/{topic}/replay")
+    public ResponseEntity<Map<String, Object>> replay(@PathVariable String topic,
+                                                      @RequestParam(defaultValue = "100") int limit) {
+        int replayed = kafkaDeadLetterService.replay(topic, checkLimit(limit));
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("topic", topic);
+        response.put("replayed", replayed);
+        return ResponseEntity.ok(response);
+    }
+
+    private int checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+}
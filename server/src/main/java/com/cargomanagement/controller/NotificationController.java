@@ -1,13 +1,17 @@
 package com.cargomanagement.controller;
 
+import com.cargomanagement.dto.EmailMessage;
 import com.cargomanagement.dto.NotificationRequest;
+import com.cargomanagement.service.EmailDispatcher;
 import com.cargomanagement.service.NotificationService;
 import jakarta.validation.Valid;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -19,9 +23,11 @@ import org.springframework.web.bind.annotation.RestController;
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final EmailDispatcher emailDispatcher;
 
-    public NotificationController(NotificationService notificationService) {
+    public NotificationController(NotificationService notificationService, EmailDispatcher emailDispatcher) {
         this.notificationService = notificationService;
+        this.emailDispatcher = emailDispatcher;
     }
 
     @PostMapping("/email")
@@ -30,8 +36,23 @@ public class NotificationController {
         Map<String, Object> response = new HashMap<>();
         response.put("success", sent);
         response.put("subject", request.getSubject());
-        response.put("message", sent ? "Notification email dispatched." : "Notification skipped - no recipients configured.");
+        response.put("message", sent ? "Notification email queued for delivery." : "Notification skipped - no recipients configured or dispatch queue full.");
         HttpStatus status = sent ? HttpStatus.ACCEPTED : HttpStatus.BAD_REQUEST;
         return ResponseEntity.status(status).body(response);
     }
+
+    @GetMapping("/dead-letters")
+    public ResponseEntity<List<EmailMessage>> getDeadLetters() {
+        return ResponseEntity.ok(emailDispatcher.getDeadLetters());
+    }
+
+    @PostMapping("/dead-letters/redrive")
+    public ResponseEntity<Map<String, Object>> redriveDeadLetters() {
+        int requeued = emailDispatcher.redriveDeadLetters();
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("requeued", requeued);
+        response.put("queueDepth", emailDispatcher.getQueueDepth());
+        return ResponseEntity.ok(response);
+    }
 }
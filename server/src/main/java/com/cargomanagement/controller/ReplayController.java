@@ -0,0 +1,54 @@
+package com.cargomanagement.controller;
+
+import com.cargomanagement.dto.ReplayJob;
+import com.cargomanagement.dto.ReplayRequest;
+import com.cargomanagement.service.EventReplayService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/replay")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174","http://cargo-flow.s3-website.ap-south-1.amazonaws.com"})
+public class ReplayController {
+
+    private final EventReplayService eventReplayService;
+
+    public ReplayController(EventReplayService eventReplayService) {
+        this.eventReplayService = eventReplayService;
+    }
+
+    @GetMapping("/projections")
+    public ResponseEntity<Collection<String>> getProjections() {
+        return ResponseEntity.ok(eventReplayService.getProjectionNames());
+    }
+
+    // Starts an asynchronous replay; poll GET /jobs/{jobId} for progress
+    @PostMapping
+    public ResponseEntity<?> startReplay(@RequestBody ReplayRequest request) {
+        try {
+            ReplayJob job = eventReplayService.start(request);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (IllegalStateException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+    }
+
+    @GetMapping("/jobs")
+    public ResponseEntity<Collection<ReplayJob>> getJobs() {
+        return ResponseEntity.ok(eventReplayService.getJobs());
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ReplayJob> getJob(@PathVariable String jobId) {
+        ReplayJob job = eventReplayService.getJob(jobId);
+        return job != null ? ResponseEntity.ok(job) : ResponseEntity.notFound().build();
+    }
+}
@@ -1,11 +1,17 @@
 package com.cargomanagement.controller;
 
+import com.cargomanagement.models.ActivityLog;
 import com.cargomanagement.models.Route;
 import com.cargomanagement.repository.RouteRepository;
+import com.cargomanagement.service.ActivityLogService;
+import com.cargomanagement.service.DashboardMetricsService;
 import com.cargomanagement.service.KafkaProducerService;
+import com.cargomanagement.util.EntityEvents;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.web.bind.annotation.*;
 import java.util.HashMap;
 import java.util.List;
@@ -22,11 +28,18 @@ public class RouteController {
 
     private final RouteRepository routeRepository;
     private final KafkaProducerService kafkaProducerService;
+    private final DashboardMetricsService dashboardMetricsService;
+    private final ActivityLogService activityLogService;
 
     @Autowired
-    public RouteController(RouteRepository routeRepository, KafkaProducerService kafkaProducerService) {
+    public RouteController(RouteRepository routeRepository,
+                           KafkaProducerService kafkaProducerService,
+                           DashboardMetricsService dashboardMetricsService,
+                           ActivityLogService activityLogService) {
         this.routeRepository = routeRepository;
         this.kafkaProducerService = kafkaProducerService;
+        this.dashboardMetricsService = dashboardMetricsService;
+        this.activityLogService = activityLogService;
     }
 
     @GetMapping
@@ -34,11 +47,13 @@ public class RouteController {
         return routeRepository.findAll();
     }
 
+    @Transactional
     @PostMapping
     public Route createRoute(@RequestBody Route route) {
         Route savedRoute = routeRepository.save(route);
-        String message = "Route created: ID=" + savedRoute.getRouteId() + ", From=" + savedRoute.getOriginPort() + " to " + savedRoute.getDestinationPort();
-        kafkaProducerService.sendMessage("route-events", message);
+        dashboardMetricsService.recordRouteCreated(savedRoute.getStatus());
+        activityLogService.recordRoute(savedRoute, ActivityLog.CREATED);
+        kafkaProducerService.publish("route-events", EntityEvents.created(savedRoute));
         return savedRoute;
     }
     
@@ -49,11 +64,14 @@ public class RouteController {
         return ResponseEntity.ok(route);
     }
 
+    @Transactional
     @PutMapping("/{id}")
     public ResponseEntity<?> updateRoute(@PathVariable Long id, @RequestBody Route routeDetails) {
         try {
             Route route = routeRepository.findById(id)
                     .orElseThrow(() -> new RuntimeException("Route not found with id: " + id));
+            String oldStatus = route.getStatus();
+            Map<String, Object> before = EntityEvents.snapshot(route);
 
             // Update all fields
             route.setOriginPort(routeDetails.getOriginPort());
@@ -64,20 +82,24 @@ public class RouteController {
             route.setCost(routeDetails.getCost());
             route.setStatus(routeDetails.getStatus());
 
-            final Route updatedRoute = routeRepository.save(route);
-            String message = "Route updated: ID=" + id + ", From=" + updatedRoute.getOriginPort() + " to " + updatedRoute.getDestinationPort();
-            kafkaProducerService.sendMessage("route-events", message);
+            final Route updatedRoute = routeRepository.saveAndFlush(route);
+            dashboardMetricsService.recordRouteStatusChanged(oldStatus, updatedRoute.getStatus());
+            activityLogService.recordRoute(updatedRoute, ActivityLog.UPDATED);
+            kafkaProducerService.publish("route-events", EntityEvents.updated(before, updatedRoute));
             return ResponseEntity.ok(updatedRoute);
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error updating route: " + e.getMessage());
         }
     }
 
+    @Transactional
     @DeleteMapping("/{id}")
     public ResponseEntity<Map<String, Object>> deleteRoute(@PathVariable Long id) {
         try {
-            if (!routeRepository.existsById(id)) {
+            Route route = routeRepository.findById(id).orElse(null);
+            if (route == null) {
                 Map<String, Object> errorResponse = new HashMap<>();
                 errorResponse.put("success", false);
                 errorResponse.put("message", "Route not found with ID: " + id);
@@ -96,10 +118,12 @@ public class RouteController {
             }
 
             routeRepository.deleteById(id);
+            routeRepository.flush();
+            dashboardMetricsService.recordRouteDeleted(route.getStatus());
+            activityLogService.recordRoute(route, ActivityLog.DELETED);
 
             // Publish to Kafka
-            String message = "Route deleted: ID=" + id;
-            kafkaProducerService.sendMessage("route-events", message);
+            kafkaProducerService.publish("route-events", EntityEvents.deleted(route));
 
             // Return success response
             Map<String, Object> response = new HashMap<>();
@@ -109,6 +133,7 @@ public class RouteController {
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("success", false);
             errorResponse.put("message", "Error deleting route: " + e.getMessage());
@@ -1,14 +1,26 @@
 package com.cargomanagement.controller;
 
+import com.cargomanagement.dto.BulkResult;
+import com.cargomanagement.dto.CursorPage;
+import com.cargomanagement.models.ActivityLog;
 import com.cargomanagement.models.Shipment;
 import com.cargomanagement.models.Delivery;
+import com.cargomanagement.repository.CargoRepository;
 import com.cargomanagement.repository.ShipmentRepository;
 import com.cargomanagement.repository.DeliveryRepository;
+import com.cargomanagement.service.ActivityLogService;
+import com.cargomanagement.service.BulkCreateService;
+import com.cargomanagement.service.DashboardMetricsService;
 import com.cargomanagement.service.KafkaProducerService;
 import com.cargomanagement.service.NotificationService;
+import com.cargomanagement.util.EntityEvents;
+import com.cargomanagement.util.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.web.bind.annotation.*;
 import java.util.HashMap;
 import java.util.List;
@@ -24,33 +36,93 @@ import java.util.Optional;
 })
 public class ShipmentController {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final ShipmentRepository shipmentRepository;
     private final DeliveryRepository deliveryRepository;
+    private final CargoRepository cargoRepository;
     private final KafkaProducerService kafkaProducerService;
     private final NotificationService notificationService;
+    private final DashboardMetricsService dashboardMetricsService;
+    private final ActivityLogService activityLogService;
+    private final BulkCreateService bulkCreateService;
 
     @Autowired
     public ShipmentController(ShipmentRepository shipmentRepository,
                             DeliveryRepository deliveryRepository,
+                            CargoRepository cargoRepository,
                             KafkaProducerService kafkaProducerService,
-                            NotificationService notificationService) {
+                            NotificationService notificationService,
+                            DashboardMetricsService dashboardMetricsService,
+                            ActivityLogService activityLogService,
+                            BulkCreateService bulkCreateService) {
         this.shipmentRepository = shipmentRepository;
         this.deliveryRepository = deliveryRepository;
+        this.cargoRepository = cargoRepository;
         this.kafkaProducerService = kafkaProducerService;
         this.notificationService = notificationService;
+        this.dashboardMetricsService = dashboardMetricsService;
+        this.activityLogService = activityLogService;
+        this.bulkCreateService = bulkCreateService;
     }
 
+    /**
+     * @deprecated loads the whole table in one response; use {@link #getShipmentPage} instead.
+     */
+    @Deprecated
     @GetMapping
     public ResponseEntity<List<Shipment>> getAllShipments() {
         try {
             List<Shipment> shipments = shipmentRepository.findAllWithDetails(); // Use the new method here
-            return ResponseEntity.ok(shipments);
+            return ResponseEntity.ok()
+                    .header("Deprecation", "true")
+                    .header(HttpHeaders.LINK, "</api/shipments/page>; rel=\"successor-version\"")
+                    .body(shipments);
         } catch (Exception e) {
             System.err.println("Error fetching shipments: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    // Cursor-paginated listing, newest first; response time depends on page size, not table size.
+    // Keyed on the immutable createdAt so an update never moves a row across pages mid-scan.
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<Shipment>> getShipmentPage(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String origin,
+            @RequestParam(required = false) String destination,
+            @RequestParam(required = false) Long routeId,
+            @RequestParam(required = false) Long vendorId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        KeysetCursor after = cursor != null && !cursor.isBlank() ? KeysetCursor.decode(cursor) : null;
+
+        // Fetch one extra row to know whether another page exists without a COUNT query
+        List<Shipment> rows = shipmentRepository.findPage(
+                status, origin, destination, routeId, vendorId,
+                after != null ? after.getTimestamp() : null,
+                after != null ? after.getId() : null,
+                size + 1);
+
+        boolean hasMore = rows.size() > size;
+        List<Shipment> items = hasMore ? rows.subList(0, size) : rows;
+
+        CursorPage<Shipment> page = new CursorPage<>();
+        page.setItems(items);
+        page.setSize(items.size());
+        page.setHasMore(hasMore);
+        if (hasMore) {
+            Shipment last = items.get(items.size() - 1);
+            page.setNextCursor(KeysetCursor.encode(last.getCreatedAt(), last.getShipmentId()));
+        }
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Shipment> getShipmentById(@PathVariable Long id) {
         try {
@@ -66,27 +138,36 @@ public class ShipmentController {
         }
     }
 
+    @Transactional
     @PostMapping
     public ResponseEntity<Shipment> createShipment(@RequestBody Shipment shipment) {
         try {
             System.out.println("Received shipment: " + shipment);
-            Shipment savedShipment = shipmentRepository.save(shipment);
+            Shipment savedShipment = shipmentRepository.saveAndFlush(shipment);
+            dashboardMetricsService.recordShipmentCreated(savedShipment.getStatus());
+            activityLogService.recordShipment(savedShipment, ActivityLog.CREATED);
             
             // Publish Kafka event
-            String message = "Shipment created: ID=" + savedShipment.getShipmentId() + 
-                           ", Origin=" + savedShipment.getOrigin() + 
-                           ", Destination=" + savedShipment.getDestination();
-            kafkaProducerService.sendMessage("shipment-events", message);
+            kafkaProducerService.publish("shipment-events", EntityEvents.created(savedShipment));
             notificationService.notifyShipmentCreated(savedShipment);
             
             return ResponseEntity.status(HttpStatus.CREATED).body(savedShipment);
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             System.err.println("Error creating shipment: " + e.getMessage());
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
     }
 
+    // Validated as a whole, written in chunks; the report has one entry per payload item
+    @PostMapping("/batch")
+    public ResponseEntity<BulkResult> createShipmentBatch(@RequestBody List<Shipment> shipments) {
+        BulkResult result = bulkCreateService.createShipments(shipments);
+        return ResponseEntity.status(bulkCreateService.responseStatus(result)).body(result);
+    }
+
+    @Transactional
     @PutMapping("/{id}")
     public ResponseEntity<Shipment> updateShipment(@PathVariable Long id, @RequestBody Shipment shipmentDetails) {
         try {
@@ -94,6 +175,7 @@ public class ShipmentController {
             if (existingShipment.isPresent()) {
                 Shipment shipment = existingShipment.get();
                 String oldStatus = shipment.getStatus(); // Store old status
+                Map<String, Object> before = EntityEvents.snapshot(shipment);
                 
                 shipment.setOrigin(shipmentDetails.getOrigin());
                 shipment.setDestination(shipmentDetails.getDestination());
@@ -108,24 +190,23 @@ public class ShipmentController {
                     shipment.setAssignedVendor(shipmentDetails.getAssignedVendor());
                 }
                 
-                Shipment updatedShipment = shipmentRepository.save(shipment);
+                Shipment updatedShipment = shipmentRepository.saveAndFlush(shipment);
+                dashboardMetricsService.recordShipmentStatusChanged(oldStatus, updatedShipment.getStatus());
+                activityLogService.recordShipment(updatedShipment, ActivityLog.UPDATED);
 
                 // Automatically create delivery record when shipment status changes to "Delivered"
                 if ("Delivered".equals(shipmentDetails.getStatus()) && 
                     !"Delivered".equals(oldStatus)) {
                     
-                    // Check if delivery record already exists for this shipment
-                    boolean deliveryExists = deliveryRepository.findAll().stream()
-                        .anyMatch(d -> d.getShipment() != null && 
-                                      d.getShipment().getShipmentId().equals(id));
-                    
-                    if (!deliveryExists) {
+                    // Check if delivery record already exists for this shipment (indexed lookup)
+                    if (!deliveryRepository.existsByShipmentShipmentId(id)) {
                         Delivery delivery = new Delivery();
                         delivery.setShipment(updatedShipment);
                         // Convert LocalDate to LocalDateTime (start of day)
                         delivery.setActualDeliveryDate(updatedShipment.getEstimatedDelivery().atStartOfDay());
                         delivery.setRecipient("Customer at " + updatedShipment.getDestination());
-                        deliveryRepository.save(delivery);
+                        Delivery savedDelivery = deliveryRepository.save(delivery);
+                        activityLogService.recordDelivery(savedDelivery, ActivityLog.CREATED);
                     }
                 }
 
@@ -134,8 +215,7 @@ public class ShipmentController {
                 // which filters deliveries to only show those with "Delivered" status
 
                 // Publish Kafka event
-                String message = "Shipment updated: ID=" + id + ", Status=" + updatedShipment.getStatus();
-                kafkaProducerService.sendMessage("shipment-events", message);
+                kafkaProducerService.publish("shipment-events", EntityEvents.updated(before, updatedShipment));
                 notificationService.notifyShipmentUpdated(updatedShipment, oldStatus);
                 
                 return ResponseEntity.ok(updatedShipment);
@@ -143,12 +223,14 @@ public class ShipmentController {
                 return ResponseEntity.notFound().build();
             }
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             System.err.println("Error updating shipment: " + e.getMessage());
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
     }
 
+    @Transactional
     @DeleteMapping("/{id}")
     public ResponseEntity<Map<String, Object>> deleteShipment(@PathVariable Long id) {
         try {
@@ -161,21 +243,23 @@ public class ShipmentController {
             }
 
             // Delete associated deliveries first (to avoid foreign key constraint violation)
-            List<Delivery> associatedDeliveries = deliveryRepository.findAll().stream()
-                .filter(d -> d.getShipment() != null && d.getShipment().getShipmentId().equals(id))
-                .toList();
-            
-            if (!associatedDeliveries.isEmpty()) {
-                deliveryRepository.deleteAll(associatedDeliveries);
-                System.out.println("Deleted " + associatedDeliveries.size() + " associated delivery records");
+            List<Long> associatedDeliveryIds = deliveryRepository.findIdsByShipmentId(id);
+            if (!associatedDeliveryIds.isEmpty()) {
+                int deletedDeliveries = deliveryRepository.deleteByShipmentId(id);
+                associatedDeliveryIds.forEach(deliveryId -> activityLogService.record(
+                    ActivityLog.DELIVERY, deliveryId, ActivityLog.DELETED, null, "Removed with shipment #" + id));
+                System.out.println("Deleted " + deletedDeliveries + " associated delivery records");
             }
 
             // Now delete the shipment (cargo will be cascaded automatically)
+            long cascadedCargo = cargoRepository.countByShipmentShipmentId(id);
             shipmentRepository.deleteById(id);
+            shipmentRepository.flush();
+            dashboardMetricsService.recordShipmentDeleted(shipment.getStatus(), cascadedCargo);
+            activityLogService.recordShipment(shipment, ActivityLog.DELETED);
 
             // Publish Kafka event
-            String message = "Shipment deleted: ID=" + id;
-            kafkaProducerService.sendMessage("shipment-events", message);
+            kafkaProducerService.publish("shipment-events", EntityEvents.deleted(shipment));
             notificationService.notifyShipmentDeleted(shipment);
 
             // Return success response
@@ -186,6 +270,7 @@ public class ShipmentController {
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             System.err.println("Error deleting shipment: " + e.getMessage());
             e.printStackTrace();
             Map<String, Object> errorResponse = new HashMap<>();
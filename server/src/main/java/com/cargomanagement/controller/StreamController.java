@@ -0,0 +1,28 @@
+package com.cargomanagement.controller;
+
+import com.cargomanagement.service.SseBroadcaster;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/stream")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174","http://cargo-flow.s3-website.ap-south-1.amazonaws.com"})
+public class StreamController {
+
+    private final SseBroadcaster sseBroadcaster;
+
+    public StreamController(SseBroadcaster sseBroadcaster) {
+        this.sseBroadcaster = sseBroadcaster;
+    }
+
+    // One-way event stream for wallboards: shipments, cargo, routes, vendors or deliveries, optionally for one entity.
+    // EventSource resends the last id as Last-Event-ID on reconnect; ?lastEventId= is accepted for clients that cannot set headers.
+    @GetMapping(value = "/{stream}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@PathVariable String stream,
+                             @RequestParam(required = false) String entityId,
+                             @RequestParam(required = false) String lastEventId,
+                             @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader) {
+        return sseBroadcaster.subscribe(stream, entityId, lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+}
@@ -1,11 +1,17 @@
 package com.cargomanagement.controller;
 
+import com.cargomanagement.models.ActivityLog;
 import com.cargomanagement.models.Vendor;
 import com.cargomanagement.repository.VendorRepository;
+import com.cargomanagement.service.ActivityLogService;
+import com.cargomanagement.service.DashboardMetricsService;
 import com.cargomanagement.service.KafkaProducerService;
+import com.cargomanagement.util.EntityEvents;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.web.bind.annotation.*;
 import java.util.HashMap;
 import java.util.List;
@@ -22,11 +28,18 @@ public class VendorController {
 
     private final VendorRepository vendorRepository;
     private final KafkaProducerService kafkaProducerService;
+    private final DashboardMetricsService dashboardMetricsService;
+    private final ActivityLogService activityLogService;
 
     @Autowired
-    public VendorController(VendorRepository vendorRepository, KafkaProducerService kafkaProducerService) {
+    public VendorController(VendorRepository vendorRepository,
+                            KafkaProducerService kafkaProducerService,
+                            DashboardMetricsService dashboardMetricsService,
+                            ActivityLogService activityLogService) {
         this.vendorRepository = vendorRepository;
         this.kafkaProducerService = kafkaProducerService;
+        this.dashboardMetricsService = dashboardMetricsService;
+        this.activityLogService = activityLogService;
     }
 
     @GetMapping
@@ -34,6 +47,7 @@ public class VendorController {
         return vendorRepository.findAll();
     }
 
+    @Transactional
     @PostMapping
     public ResponseEntity<?> createVendor(@RequestBody Vendor vendor) {
         try {
@@ -44,11 +58,13 @@ public class VendorController {
                 vendor.setIsActive(true);
             }
             
-            Vendor savedVendor = vendorRepository.save(vendor);
-            String message = "Vendor created: ID=" + savedVendor.getVendorId() + ", Name=" + savedVendor.getName();
-            kafkaProducerService.sendMessage("vendor-events", message);
+            Vendor savedVendor = vendorRepository.saveAndFlush(vendor);
+            dashboardMetricsService.recordVendorCreated();
+            activityLogService.recordVendor(savedVendor, ActivityLog.CREATED);
+            kafkaProducerService.publish("vendor-events", EntityEvents.created(savedVendor));
             return ResponseEntity.ok(savedVendor);
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             System.err.println("Error creating vendor: " + e.getMessage());
             e.printStackTrace();
             return ResponseEntity.status(500).body("Error creating vendor: " + e.getMessage());
@@ -62,25 +78,29 @@ public class VendorController {
         return ResponseEntity.ok(vendor);
     }
 
+    @Transactional
     @PutMapping("/{id}")
     public ResponseEntity<Vendor> updateVendor(@PathVariable Long id, @RequestBody Vendor vendorDetails) {
         Vendor vendor = vendorRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Vendor not found with id: " + id));
+        Map<String, Object> before = EntityEvents.snapshot(vendor);
 
         vendor.setName(vendorDetails.getName());
         vendor.setContactInfo(vendorDetails.getContactInfo());
         vendor.setServiceType(vendorDetails.getServiceType());
 
         final Vendor updatedVendor = vendorRepository.save(vendor);
-        String message = "Vendor updated: ID=" + id + ", Name=" + updatedVendor.getName();
-        kafkaProducerService.sendMessage("vendor-events", message);
+        activityLogService.recordVendor(updatedVendor, ActivityLog.UPDATED);
+        kafkaProducerService.publish("vendor-events", EntityEvents.updated(before, updatedVendor));
         return ResponseEntity.ok(updatedVendor);
     }
 
+    @Transactional
     @DeleteMapping("/{id}")
     public ResponseEntity<Map<String, Object>> deleteVendor(@PathVariable Long id) {
         try {
-            if (!vendorRepository.existsById(id)) {
+            Vendor vendor = vendorRepository.findById(id).orElse(null);
+            if (vendor == null) {
                 Map<String, Object> errorResponse = new HashMap<>();
                 errorResponse.put("success", false);
                 errorResponse.put("message", "Vendor not found with ID: " + id);
@@ -88,10 +108,12 @@ public class VendorController {
             }
 
             vendorRepository.deleteById(id);
+            vendorRepository.flush();
+            dashboardMetricsService.recordVendorDeleted();
+            activityLogService.recordVendor(vendor, ActivityLog.DELETED);
 
             // Publish to Kafka
-            String message = "Vendor deleted: ID=" + id;
-            kafkaProducerService.sendMessage("vendor-events", message);
+            kafkaProducerService.publish("vendor-events", EntityEvents.deleted(vendor));
 
             // Return success response
             Map<String, Object> response = new HashMap<>();
@@ -101,6 +123,7 @@ public class VendorController {
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("success", false);
             errorResponse.put("message", "Error deleting vendor: " + e.getMessage());
@@ -0,0 +1,18 @@
+package com.cargomanagement.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkItemResult {
+
+    public static final String CREATED = "CREATED";
+    public static final String REJECTED = "REJECTED"; // Failed validation; nothing was written
+    public static final String FAILED = "FAILED";     // Valid, but its chunk was rolled back by the database
+
+    private long index;         // Position in the request payload (or record number in an import stream)
+    private String status;
+    private Long id;            // Generated id when CREATED
+    private List<String> errors;
+}
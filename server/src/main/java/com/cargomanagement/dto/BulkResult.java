@@ -0,0 +1,15 @@
+package com.cargomanagement.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BulkResult {
+    private int total;
+    private int created;
+    private int rejected;
+    private int failed;
+    private List<BulkItemResult> items = new ArrayList<>(); // One entry per payload item, in payload order
+}
@@ -0,0 +1,39 @@
+package com.cargomanagement.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Row of GET /api/cargo: the cargo columns plus a {@link ShipmentSummary}, read with one constructor-expression
+ * query instead of hydrating Cargo → Shipment → Route/Vendor entities. Same JSON shape as the entity for the
+ * fields the list uses.
+ */
+@Data
+public class CargoListItem {
+    private Long cargoId;
+    private String type;
+    private BigDecimal value;
+    private BigDecimal weight;
+    private String weightUnit;
+    private BigDecimal volume;
+    private String description;
+    private LocalDateTime createdAt;
+    private ShipmentSummary shipment;
+
+    // Constructor expression target; the shipment columns are null for unassigned cargo
+    public CargoListItem(Long cargoId, String type, BigDecimal value, BigDecimal weight, String weightUnit,
+                         BigDecimal volume, String description, LocalDateTime createdAt,
+                         Long shipmentId, String shipmentCode, String origin, String destination, String status) {
+        this.cargoId = cargoId;
+        this.type = type;
+        this.value = value;
+        this.weight = weight;
+        this.weightUnit = weightUnit;
+        this.volume = volume;
+        this.description = description;
+        this.createdAt = createdAt;
+        this.shipment = shipmentId != null ? new ShipmentSummary(shipmentId, shipmentCode, origin, destination, status) : null;
+    }
+}
@@ -0,0 +1,12 @@
+package com.cargomanagement.dto;
+
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class CursorPage<T> {
+    private List<T> items;
+    private int size;
+    private boolean hasMore;
+    private String nextCursor; // Opaque token; pass back as ?cursor= to fetch the next page
+}
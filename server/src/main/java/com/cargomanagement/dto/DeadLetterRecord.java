@@ -0,0 +1,18 @@
+package com.cargomanagement.dto;
+
+import lombok.Data;
+
+@Data
+public class DeadLetterRecord {
+    private String topic;
+    private int partition;
+    private long offset;
+    private String key;
+    private String value;
+    private long timestamp;
+    private String originalTopic;
+    private Integer originalPartition;
+    private Long originalOffset;
+    private String exceptionClass;
+    private String exceptionMessage;
+}
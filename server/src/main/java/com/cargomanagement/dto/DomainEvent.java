@@ -0,0 +1,81 @@
+package com.cargomanagement.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Envelope published to the *-events Kafka topics, keyed by entityId.
+ * changedFields holds the new values (every field on create); previousValues holds the old values
+ * of the changed fields (the last known state on delete). attributes lets consumers route and filter
+ * (e.g. WebSocket selectors on status or vendor) without reconstructing the entity.
+ * A BATCH_CREATED event summarizes one bulk-insert chunk: it has no entityId and carries one created
+ * snapshot per entity (with its "id") in items. Bulk chunks now publish per-entity CREATED events instead; the type
+ * is kept so summaries already on the topics can still be read and replayed.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class DomainEvent {
+
+    public static final String CREATED = "CREATED";
+    public static final String UPDATED = "UPDATED";
+    public static final String DELETED = "DELETED";
+    public static final String BATCH_CREATED = "BATCH_CREATED";
+
+    private String eventId;
+    private String eventType;
+    private String entityType;  // SHIPMENT, CARGO, ROUTE, VENDOR or DELIVERY
+    private Long entityId;
+    private long version;       // Entity last-modified time in epoch millis where tracked, otherwise event time
+    private long timestamp;     // Event time in epoch millis
+    private Map<String, Object> changedFields;
+    private Map<String, Object> previousValues;
+    private Map<String, Object> attributes;  // Current values of filterable fields (status, vendorId, routeId) on every event
+    private List<Map<String, Object>> items; // BATCH_CREATED only
+
+    public static DomainEvent created(String entityType, Long entityId, long version, Map<String, Object> state) {
+        DomainEvent event = create(CREATED, entityType, entityId, version);
+        event.setChangedFields(state);
+        return event;
+    }
+
+    // Only fields whose value differs between the two snapshots are carried
+    public static DomainEvent updated(String entityType, Long entityId, long version,
+                                      Map<String, Object> before, Map<String, Object> after) {
+        DomainEvent event = create(UPDATED, entityType, entityId, version);
+        Map<String, Object> changed = new LinkedHashMap<>();
+        Map<String, Object> previous = new LinkedHashMap<>();
+        after.forEach((field, value) -> {
+            Object old = before.get(field);
+            if (!Objects.equals(old, value)) {
+                changed.put(field, value);
+                previous.put(field, old);
+            }
+        });
+        event.setChangedFields(changed);
+        event.setPreviousValues(previous);
+        return event;
+    }
+
+    public static DomainEvent deleted(String entityType, Long entityId, long version, Map<String, Object> lastState) {
+        DomainEvent event = create(DELETED, entityType, entityId, version);
+        event.setPreviousValues(lastState);
+        return event;
+    }
+
+    private static DomainEvent create(String eventType, String entityType, Long entityId, long version) {
+        DomainEvent event = new DomainEvent();
+        event.setEventId(UUID.randomUUID().toString());
+        event.setEventType(eventType);
+        event.setEntityType(entityType);
+        event.setEntityId(entityId);
+        event.setVersion(version);
+        event.setTimestamp(System.currentTimeMillis());
+        return event;
+    }
+}
@@ -0,0 +1,16 @@
+package com.cargomanagement.dto;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class EmailMessage {
+    private List<String> recipients;
+    private String subject;
+    private String body;
+    private boolean html;
+    private int attempts;        // Failed delivery attempts so far
+    private String lastError;
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -0,0 +1,35 @@
+package com.cargomanagement.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Data
+public class ReplayJob {
+
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    private String jobId;
+    private String projection;
+    private List<String> topics;
+    private String from;
+    private volatile String state;
+    private LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile long eventsApplied;
+    private volatile long eventsSkipped;
+    private volatile String error;
+    private Map<String, Long> endOffsets = new ConcurrentHashMap<>();   // "topic-partition" -> offset the replay stops at
+    private Map<String, Long> positions = new ConcurrentHashMap<>();    // "topic-partition" -> next offset to apply
+
+    // Partition workers report progress concurrently
+    public synchronized void addProgress(long applied, long skipped) {
+        eventsApplied += applied;
+        eventsSkipped += skipped;
+    }
+}
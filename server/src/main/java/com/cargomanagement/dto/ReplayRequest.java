@@ -0,0 +1,15 @@
+package com.cargomanagement.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ReplayRequest {
+    private String projection;
+    private List<String> topics;   // Defaults to every topic the projection consumes
+    private String from;           // EARLIEST, OFFSET, TIMESTAMP or CHECKPOINT (default CHECKPOINT)
+    private Long offset;           // Start offset for every partition when from=OFFSET
+    private Long timestamp;        // Epoch millis when from=TIMESTAMP
+    private boolean reset;         // Clear the read model before replaying
+}
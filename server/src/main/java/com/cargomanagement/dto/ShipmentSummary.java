@@ -0,0 +1,15 @@
+package com.cargomanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// The shipment fields list views show next to a child row, without the route/vendor graph
+@Data
+@AllArgsConstructor
+public class ShipmentSummary {
+    private Long shipmentId;
+    private String shipmentCode;
+    private String origin;
+    private String destination;
+    private String status;
+}
@@ -0,0 +1,7 @@
+package com.cargomanagement.dto;
+
+// Projection for GROUP BY status aggregate queries
+public interface StatusCount {
+    String getStatus();
+    long getCount();
+}
@@ -0,0 +1,47 @@
+package com.cargomanagement.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@Table(name = "activity_log", indexes = {
+    @Index(name = "idx_activity_log_occurred_at_id", columnList = "occurred_at DESC, activity_id DESC")  // Newest-first keyset reads
+})
+public class ActivityLog {
+
+    public static final String SHIPMENT = "SHIPMENT";
+    public static final String CARGO = "CARGO";
+    public static final String ROUTE = "ROUTE";
+    public static final String VENDOR = "VENDOR";
+    public static final String DELIVERY = "DELIVERY";
+
+    public static final String CREATED = "CREATED";
+    public static final String UPDATED = "UPDATED";
+    public static final String DELETED = "DELETED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "activity_log_seq")
+    @SequenceGenerator(name = "activity_log_seq", sequenceName = "activity_log_seq", allocationSize = 50)
+    private Long activityId;
+
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private String entityType;  // SHIPMENT, CARGO, ROUTE, VENDOR or DELIVERY
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "action", nullable = false, length = 20)
+    private String action;  // CREATED, UPDATED or DELETED
+
+    @Column(name = "status", length = 50)
+    private String status;  // Entity status after the mutation, if it has one
+
+    @Column(name = "details", length = 255)
+    private String details;  // Short human-readable summary, e.g. "Mumbai → Rotterdam"
+
+    @Column(name = "occurred_at", nullable = false, updatable = false)
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,45 @@
+package com.cargomanagement.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Shadow copy of activity_log that an activity-feed replay builds into. The live feed keeps serving (and
+ * receiving writes) until the replay completes and the rebuilt range is swapped in. Each row also keeps the
+ * entity's merged state after its event (JSON, not copied to activity_log), so a resumed replay can pick up the
+ * last known state of every entity from the shadow table.
+ */
+@Entity
+@Data
+@Table(name = "activity_log_rebuild")
+public class ActivityLogRebuild {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "activity_log_rebuild_seq")
+    @SequenceGenerator(name = "activity_log_rebuild_seq", sequenceName = "activity_log_rebuild_seq", allocationSize = 50)
+    private Long rebuildId;
+
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private String entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "action", nullable = false, length = 20)
+    private String action;
+
+    @Column(name = "status", length = 50)
+    private String status;
+
+    @Column(name = "details", length = 255)
+    private String details;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    // Null for DELETED rows
+    @Column(name = "state", columnDefinition = "TEXT")
+    private String state;
+}
@@ -18,10 +18,11 @@ import java.time.LocalDateTime;
 public class Cargo {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cargo_seq")
+    @SequenceGenerator(name = "cargo_seq", sequenceName = "cargo_seq", allocationSize = 50)
     private Long cargoId;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "shipment_id", nullable = true)
     private Shipment shipment;
 
@@ -12,14 +12,17 @@ import java.time.LocalDateTime;
 
 @Entity
 @Data
-@Table(name = "deliveries")
+@Table(name = "deliveries", indexes = {
+    @Index(name = "idx_deliveries_shipment_id", columnList = "shipment_id")  // Point lookups and deletes by shipment
+})
 public class Delivery {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "deliveries_seq")
+    @SequenceGenerator(name = "deliveries_seq", sequenceName = "deliveries_seq", allocationSize = 50)
     private Long deliveryId;
 
     @NotNull(message = "Shipment is required")
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "shipment_id", nullable = false)  // NOT NULL
     private Shipment shipment;
 
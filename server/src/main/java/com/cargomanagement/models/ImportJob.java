@@ -0,0 +1,67 @@
+package com.cargomanagement.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of one streaming manifest import. Counters and recordsRead are updated in the same transaction
+ * as each chunk of inserted rows, so after a crash or a dropped upload recordsRead is exactly the number of
+ * records already accounted for, and a resumed upload of the same file skips that many.
+ */
+@Entity
+@Data
+@Table(name = "import_job")
+public class ImportJob {
+
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String INTERRUPTED = "INTERRUPTED";  // Resumable with ?resume={jobId}
+    public static final String INVALID = "INVALID";          // Unusable input (e.g. no CSV header); fix the file
+
+    @Id
+    @Column(name = "job_id", length = 36)
+    private String jobId;
+
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private String entityType;  // CARGO or SHIPMENT
+
+    @Column(name = "format", nullable = false, length = 10)
+    private String format;      // CSV or NDJSON
+
+    @Column(name = "file_name", length = 255)
+    private String fileName;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status;
+
+    @Column(name = "records_read", nullable = false)
+    private long recordsRead;   // Records consumed from the stream = created + rejected
+
+    @Column(name = "created_count", nullable = false)
+    private long created;
+
+    @Column(name = "rejected_count", nullable = false)
+    private long rejected;
+
+    @Column(name = "error_sample", columnDefinition = "TEXT")
+    private String errorSample; // First import.max-reported-errors problems, one per line
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @JsonIgnore
+    @Column(name = "run_token", length = 36)
+    private String runToken;    // Upload currently writing this job; a resumed upload takes over with a new token
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,45 @@
+package com.cargomanagement.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@Table(name = "outbox_event", indexes = {
+    @Index(name = "idx_outbox_event_key_id", columnList = "event_key, outbox_id")  // Per-key ordering check in lockOldest
+})
+public class OutboxEvent {
+
+    public static final String PENDING = "PENDING";
+    public static final String PARKED = "PARKED";  // Gave up after kafka.outbox.max-attempts; skipped by the relay
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long outboxId;  // Relay order; rows are sent oldest first. Kept IDENTITY: pooled blocks would interleave ids across nodes
+
+    @Column(name = "topic", nullable = false, length = 100)
+    private String topic;
+
+    @Column(name = "event_key", length = 100)
+    private String eventKey;  // Kafka record key (the entity id)
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status = PENDING;
+
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;  // Not relayed before this: the retry backoff, or the lease while a relay is sending it
+}
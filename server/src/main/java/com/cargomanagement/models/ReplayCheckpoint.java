@@ -0,0 +1,33 @@
+package com.cargomanagement.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@Table(name = "replay_checkpoint", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_replay_checkpoint_partition", columnNames = {"projection", "topic", "partition_id"})
+})
+public class ReplayCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long checkpointId;
+
+    @Column(name = "projection", nullable = false, length = 50)
+    private String projection;
+
+    @Column(name = "topic", nullable = false, length = 100)
+    private String topic;
+
+    @Column(name = "partition_id", nullable = false)
+    private int partition;
+
+    @Column(name = "next_offset", nullable = false)
+    private long nextOffset;  // First offset not yet applied to the projection
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -1,5 +1,6 @@
 package com.cargomanagement.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -13,11 +14,13 @@ import java.time.LocalDateTime;
 
 @Entity
 @Data
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "route",
        uniqueConstraints = @UniqueConstraint(columnNames = {"origin_port", "destination_port"}))  // UNIQUE constraint via annotation
 public class Route {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "route_seq")
+    @SequenceGenerator(name = "route_seq", sequenceName = "route_seq", allocationSize = 50)
     private Long routeId;
 
     @NotBlank(message = "Origin port is required")
@@ -1,6 +1,7 @@
 package com.cargomanagement.models;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -14,10 +15,14 @@ import java.util.List;
 
 @Entity
 @Data
-@Table(name = "shipment")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})  // Lazy proxies (cargo.shipment, delivery.shipment) serialize as the entity
+@Table(name = "shipment", indexes = {
+    @Index(name = "idx_shipment_created_at_id", columnList = "created_at DESC, shipment_id DESC")  // Keyset pagination order
+})
 public class Shipment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shipment_seq")
+    @SequenceGenerator(name = "shipment_seq", sequenceName = "shipment_seq", allocationSize = 50)
     private Long shipmentId;
 
     @NotBlank(message = "Origin is required")
@@ -39,12 +44,12 @@ public class Shipment {
     private LocalDate estimatedDelivery;  // Using LocalDate for DATE
 
     // FK to Route (NULLABLE - Optional assignment)
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "route_id", nullable = true)
     private Route assignedRoute;
 
     // FK to Vendor (NULLABLE - Optional assignment)
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "vendor_id", nullable = true)
     private Vendor assignedVendor;
 
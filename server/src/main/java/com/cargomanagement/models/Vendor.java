@@ -1,5 +1,6 @@
 package com.cargomanagement.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -10,11 +11,13 @@ import java.time.LocalDateTime;
 
 @Entity
 @Data
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "vendor")
 public class Vendor {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vendor_seq")
+    @SequenceGenerator(name = "vendor_seq", sequenceName = "vendor_seq", allocationSize = 50)
     private Long vendorId;
 
     @NotBlank(message = "Name is required and cannot be empty")
@@ -0,0 +1,38 @@
+package com.cargomanagement.repository;
+
+import com.cargomanagement.models.ActivityLogRebuild;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ActivityLogRebuildRepository extends JpaRepository<ActivityLogRebuild, Long> {
+
+    @Query("SELECT DISTINCT r.entityType FROM ActivityLogRebuild r")
+    List<String> findEntityTypes();
+
+    // Latest row of every entity; ids are allocated in apply order, and all events of an entity share a partition
+    @Query("SELECT r FROM ActivityLogRebuild r WHERE r.rebuildId IN " +
+           "(SELECT MAX(l.rebuildId) FROM ActivityLogRebuild l GROUP BY l.entityType, l.entityId)")
+    List<ActivityLogRebuild> findLatestPerEntity();
+
+    @Query("SELECT MIN(r.occurredAt) FROM ActivityLogRebuild r WHERE r.entityType = :entityType")
+    LocalDateTime findFirstOccurredAt(@Param("entityType") String entityType);
+
+    @Query("SELECT MAX(r.occurredAt) FROM ActivityLogRebuild r WHERE r.entityType = :entityType")
+    LocalDateTime findLastOccurredAt(@Param("entityType") String entityType);
+
+    // Copies one entity type into the live feed in a single statement. nextval on the pooled sequence only ever
+    // returns values above the blocks Hibernate has handed out, so the ids cannot collide with live inserts.
+    @Modifying
+    @Query(value = "INSERT INTO activity_log (activity_id, entity_type, entity_id, action, status, details, occurred_at) " +
+                   "SELECT nextval('activity_log_seq'), entity_type, entity_id, action, status, details, occurred_at " +
+                   "FROM activity_log_rebuild WHERE entity_type = :entityType ORDER BY occurred_at, rebuild_id",
+           nativeQuery = true)
+    int copyToActivityLog(@Param("entityType") String entityType);
+}
@@ -0,0 +1,36 @@
+package com.cargomanagement.repository;
+
+import com.cargomanagement.models.ActivityLog;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ActivityLogRepository extends JpaRepository<ActivityLog, Long> {
+
+    // Newest-first keyset pages. First page and cursor pages are separate queries: an optional cursor written as
+    // (:cursor IS NULL OR ...) is planned once for both cases and keeps the index on occurred_at from being used.
+    @Query("SELECT a FROM ActivityLog a ORDER BY a.occurredAt DESC, a.activityId DESC")
+    List<ActivityLog> findNewest(Pageable pageable);
+
+    @Query("SELECT a FROM ActivityLog a " +
+           "WHERE a.occurredAt < :cursorOccurredAt " +
+           "   OR (a.occurredAt = :cursorOccurredAt AND a.activityId < :cursorId) " +
+           "ORDER BY a.occurredAt DESC, a.activityId DESC")
+    List<ActivityLog> findNewestBefore(@Param("cursorOccurredAt") LocalDateTime cursorOccurredAt,
+                                       @Param("cursorId") Long cursorId,
+                                       Pageable pageable);
+
+    // Clears the part of the feed an activity-feed replay has rebuilt
+    @Modifying
+    @Query("DELETE FROM ActivityLog a WHERE a.entityType = :entityType AND a.occurredAt BETWEEN :from AND :to")
+    int deleteRange(@Param("entityType") String entityType,
+                    @Param("from") LocalDateTime from,
+                    @Param("to") LocalDateTime to);
+}
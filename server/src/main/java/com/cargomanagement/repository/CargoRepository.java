@@ -1,17 +1,29 @@
 package com.cargomanagement.repository;
 
+import com.cargomanagement.dto.CargoListItem;
 import com.cargomanagement.models.Cargo;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CargoRepository extends JpaRepository<Cargo, Long> {
     List<Cargo> findByShipmentShipmentId(Long shipmentId);
     List<Cargo> findByType(String type);
+    long countByShipmentShipmentId(Long shipmentId);
     
-    @Query("SELECT c FROM Cargo c LEFT JOIN FETCH c.shipment")
-    List<Cargo> findAllWithShipment();
+    // Single-entity reads return the shipment with its route and vendor, as before the associations went lazy
+    @Override
+    @EntityGraph(attributePaths = {"shipment", "shipment.assignedRoute", "shipment.assignedVendor"})
+    Optional<Cargo> findById(Long id);
+
+    // List view projection: one LEFT JOIN, no entity hydration or per-row route/vendor selects
+    @Query("SELECT new com.cargomanagement.dto.CargoListItem(c.cargoId, c.type, c.value, c.weight, c.weightUnit, " +
+           "c.volume, c.description, c.createdAt, s.shipmentId, s.shipmentCode, s.origin, s.destination, s.status) " +
+           "FROM Cargo c LEFT JOIN c.shipment s ORDER BY c.cargoId")
+    List<CargoListItem> findAllListItems();
 }
@@ -2,8 +2,15 @@ package com.cargomanagement.repository;
 
 import com.cargomanagement.models.Delivery;
 import com.cargomanagement.models.Shipment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,4 +21,34 @@ public interface DeliveryRepository extends JpaRepository<Delivery, Long> {
     Optional<Delivery> findByShipment(Shipment shipment);
     Optional<Delivery> findByShipmentShipmentId(Long shipmentId);
     List<Delivery> findByStatus(String status);
-}
\ No newline at end of file
+
+    @Override
+    @EntityGraph(attributePaths = {"shipment", "shipment.assignedRoute", "shipment.assignedVendor"})
+    Optional<Delivery> findById(Long id);
+
+    // Filters on the deliveries.shipment_id column; the derived form joins shipment and misses the index
+    @Query("SELECT COUNT(d) > 0 FROM Delivery d WHERE d.shipment.shipmentId = :shipmentId")
+    boolean existsByShipmentShipmentId(@Param("shipmentId") Long shipmentId);
+
+    @Query("SELECT d.deliveryId FROM Delivery d WHERE d.shipment.shipmentId = :shipmentId")
+    List<Long> findIdsByShipmentId(@Param("shipmentId") Long shipmentId);
+
+    // Shipment status predicate evaluated in SQL; the shipment graph is fetched in the same query
+    @Query("SELECT d FROM Delivery d JOIN FETCH d.shipment s LEFT JOIN FETCH s.assignedRoute LEFT JOIN FETCH s.assignedVendor " +
+           "WHERE s.status = :status ORDER BY d.deliveryId")
+    Slice<Delivery> findSliceByShipmentStatus(@Param("status") String status, Pageable pageable);
+
+    // Ids only, so cleanup batches never hydrate entities
+    @Query("SELECT d.deliveryId FROM Delivery d WHERE d.shipment.status <> :status ORDER BY d.deliveryId")
+    List<Long> findIdsByShipmentStatusNot(@Param("status") String status, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Delivery d WHERE d.deliveryId IN :ids")
+    int deleteAllByIdIn(@Param("ids") List<Long> ids);
+
+    // Single DELETE ... WHERE shipment_id = ? without loading the rows
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Delivery d WHERE d.shipment.shipmentId = :shipmentId")
+    int deleteByShipmentId(@Param("shipmentId") Long shipmentId);
+}
@@ -0,0 +1,20 @@
+package com.cargomanagement.repository;
+
+import com.cargomanagement.models.ImportJob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, String> {
+
+    // Row lock so progress updates and resume claims on the same job are serialized across nodes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT j FROM ImportJob j WHERE j.jobId = :jobId")
+    Optional<ImportJob> lockById(@Param("jobId") String jobId);
+}
@@ -0,0 +1,28 @@
+package com.cargomanagement.repository;
+
+import com.cargomanagement.models.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Oldest pending rows that are due, skipping parked rows and any row queued behind an earlier row for the same key
+    // that is backing off or leased to another relay, so one entity's events never overtake each other.
+    // SKIP LOCKED lets several relay instances claim disjoint batches.
+    @Query(value = "SELECT * FROM outbox_event o WHERE o.status = 'PENDING' AND o.available_at <= :now " +
+                   "AND NOT EXISTS (SELECT 1 FROM outbox_event e WHERE e.event_key = o.event_key " +
+                   "AND e.outbox_id < o.outbox_id AND e.status = 'PENDING' AND e.available_at > :now) " +
+                   "ORDER BY o.outbox_id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockOldest(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent o WHERE o.outboxId IN :ids")
+    int deleteAllByIdIn(@Param("ids") List<Long> ids);
+}
@@ -0,0 +1,12 @@
+package com.cargomanagement.repository;
+
+import com.cargomanagement.models.ReplayCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ReplayCheckpointRepository extends JpaRepository<ReplayCheckpoint, Long> {
+    Optional<ReplayCheckpoint> findByProjectionAndTopicAndPartition(String projection, String topic, int partition);
+}
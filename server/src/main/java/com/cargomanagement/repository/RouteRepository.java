@@ -1,5 +1,6 @@
 package com.cargomanagement.repository;
 
+import com.cargomanagement.dto.StatusCount;
 import com.cargomanagement.models.Route;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -13,6 +14,9 @@ public interface RouteRepository extends JpaRepository<Route, Long> {
     List<Route> findByStatus(String status);
     List<Route> findByOriginPortAndDestinationPort(String originPort, String destinationPort);
     List<Route> findByTransportationMode(String transportationMode);
+
+    @Query("SELECT r.status AS status, COUNT(r) AS count FROM Route r GROUP BY r.status")
+    List<StatusCount> countGroupedByStatus();
     
     // Check if route is being used by any shipments before deletion
     @Query("SELECT COUNT(s) FROM Shipment s WHERE s.assignedRoute.routeId = :routeId")
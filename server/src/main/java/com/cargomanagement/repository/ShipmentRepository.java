@@ -1,16 +1,38 @@
 package com.cargomanagement.repository;
 
+import com.cargomanagement.dto.StatusCount;
 import com.cargomanagement.models.Shipment;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ShipmentRepository extends JpaRepository<Shipment, Long> {
+public interface ShipmentRepository extends JpaRepository<Shipment, Long>, ShipmentRepositoryCustom {
     List<Shipment> findByStatus(String status);
+
+    @Override
+    @EntityGraph(attributePaths = {"assignedRoute", "assignedVendor"})
+    Optional<Shipment> findById(Long id);
+
+    // Which of the given tracking codes are already taken; used to validate bulk inserts in one query
+    @Query("SELECT s.shipmentCode FROM Shipment s WHERE s.shipmentCode IN :codes")
+    List<String> findExistingShipmentCodes(@Param("codes") Collection<String> codes);
+
+    @Query("SELECT s.status AS status, COUNT(s) AS count FROM Shipment s GROUP BY s.status")
+    List<StatusCount> countGroupedByStatus();
     
-    @Query("SELECT s FROM Shipment s LEFT JOIN FETCH s.cargoItems LEFT JOIN FETCH s.assignedRoute LEFT JOIN FETCH s.assignedVendor")
+    /**
+     * @deprecated unbounded; use {@link ShipmentRepositoryCustom#findPage} instead.
+     * Fetches only the to-one graph the response serializes (cargoItems is not part of the JSON).
+     */
+    @Deprecated
+    @EntityGraph(attributePaths = {"assignedRoute", "assignedVendor"})
+    @Query("SELECT s FROM Shipment s")
     List<Shipment> findAllWithDetails();
-}
\ No newline at end of file
+}
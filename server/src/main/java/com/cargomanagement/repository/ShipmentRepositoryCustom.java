@@ -0,0 +1,16 @@
+package com.cargomanagement.repository;
+
+import com.cargomanagement.models.Shipment;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ShipmentRepositoryCustom {
+
+    /**
+     * Keyset page ordered by (createdAt, shipmentId) descending; pass null cursor values for the first page.
+     * Only the filters that are set become predicates, so each combination gets a plan of its own.
+     */
+    List<Shipment> findPage(String status, String origin, String destination, Long routeId, Long vendorId,
+                            LocalDateTime cursorCreatedAt, Long cursorId, int limit);
+}
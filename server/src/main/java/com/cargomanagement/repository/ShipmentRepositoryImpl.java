@@ -0,0 +1,66 @@
+package com.cargomanagement.repository;
+
+import com.cargomanagement.models.Shipment;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria implementation of {@link ShipmentRepositoryCustom}. A static query with "(:x IS NULL OR ...)" for every
+ * optional filter keeps the planner off idx_shipment_created_at_id, so the WHERE clause is built from the filters
+ * actually given.
+ */
+public class ShipmentRepositoryImpl implements ShipmentRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Shipment> findPage(String status, String origin, String destination, Long routeId, Long vendorId,
+                                   LocalDateTime cursorCreatedAt, Long cursorId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Shipment> query = cb.createQuery(Shipment.class);
+        Root<Shipment> shipment = query.from(Shipment.class);
+        // Only to-one associations are fetched so the SQL LIMIT applies to shipment rows
+        shipment.fetch("assignedRoute", JoinType.LEFT);
+        shipment.fetch("assignedVendor", JoinType.LEFT);
+
+        Path<LocalDateTime> createdAt = shipment.get("createdAt");
+        Path<Long> shipmentId = shipment.get("shipmentId");
+        List<Predicate> predicates = new ArrayList<>();
+        if (status != null) {
+            predicates.add(cb.equal(shipment.get("status"), status));
+        }
+        if (origin != null) {
+            predicates.add(cb.equal(shipment.get("origin"), origin));
+        }
+        if (destination != null) {
+            predicates.add(cb.equal(shipment.get("destination"), destination));
+        }
+        if (routeId != null) {
+            predicates.add(cb.equal(shipment.get("assignedRoute").get("routeId"), routeId));
+        }
+        if (vendorId != null) {
+            predicates.add(cb.equal(shipment.get("assignedVendor").get("vendorId"), vendorId));
+        }
+        if (cursorCreatedAt != null && cursorId != null) {
+            predicates.add(cb.or(
+                cb.lessThan(createdAt, cursorCreatedAt),
+                cb.and(cb.equal(createdAt, cursorCreatedAt), cb.lessThan(shipmentId, cursorId))));
+        }
+
+        query.select(shipment)
+             .where(predicates.toArray(new Predicate[0]))
+             .orderBy(cb.desc(createdAt), cb.desc(shipmentId));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
@@ -0,0 +1,194 @@
+package com.cargomanagement.service;
+
+import com.cargomanagement.dto.DomainEvent;
+import com.cargomanagement.models.ActivityLog;
+import com.cargomanagement.models.ActivityLogRebuild;
+import com.cargomanagement.repository.ActivityLogRebuildRepository;
+import com.cargomanagement.repository.ActivityLogRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rebuilds the activity_log feed from the event topics.
+ * Events are projected into the activity_log_rebuild shadow table (checkpointed, so an interrupted replay resumes
+ * into the same shadow). When the replay completes, the replayed time range of each entity type is swapped into
+ * activity_log in one transaction: live rows in that range are replaced, rows outside it (live writes made after
+ * the replay started, history from before the typed events) are kept.
+ * Update events only carry changed fields, so the last known state of each entity seen during the replay
+ * is kept to fill in the status and details the feed shows. That state is also written with each shadow row and
+ * reloaded from the latest row of every entity when a replay resumes from its checkpoint.
+ */
+@Component
+public class ActivityFeedProjection implements EventProjection {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityFeedProjection.class);
+    private static final int DETAILS_MAX_LENGTH = 255;
+    // Live rows are timestamped just before their event, so the swapped range starts slightly earlier
+    private static final long RANGE_SLACK_SECONDS = 1;
+    private static final TypeReference<Map<String, Object>> STATE_TYPE = new TypeReference<>() { };
+
+    private final ActivityLogRepository activityLogRepository;
+    private final ActivityLogRebuildRepository rebuildRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Map<String, Object>> lastKnownState = new ConcurrentHashMap<>();
+
+    public ActivityFeedProjection(ActivityLogRepository activityLogRepository,
+                                  ActivityLogRebuildRepository rebuildRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  ObjectMapper objectMapper) {
+        this.activityLogRepository = activityLogRepository;
+        this.rebuildRepository = rebuildRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String getName() {
+        return "activity-feed";
+    }
+
+    @Override
+    public Set<String> getTopics() {
+        return Set.copyOf(KafkaDeadLetterService.SOURCE_TOPICS);
+    }
+
+    @Override
+    public void beginReplay(boolean resume) {
+        lastKnownState.clear();
+        if (resume) {
+            restoreState();
+        } else {
+            rebuildRepository.deleteAllInBatch();
+        }
+    }
+
+    @Override
+    public void apply(String topic, List<DomainEvent> events) {
+        List<ActivityLogRebuild> entries = new ArrayList<>(events.size());
+        for (DomainEvent event : events) {
+            Map<String, Object> state = mergeState(event);
+
+            ActivityLogRebuild entry = new ActivityLogRebuild();
+            entry.setEntityType(event.getEntityType());
+            entry.setEntityId(event.getEntityId());
+            entry.setAction(event.getEventType());
+            entry.setStatus(hasStatus(event.getEntityType()) ? asString(state.get("status")) : null);
+            entry.setDetails(details(event.getEntityType(), state));
+            entry.setOccurredAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(event.getTimestamp()), ZoneId.systemDefault()));
+            if (!DomainEvent.DELETED.equals(event.getEventType())) {
+                entry.setState(writeState(state));
+            }
+            entries.add(entry);
+        }
+        rebuildRepository.saveAll(entries);
+    }
+
+    // A failed replay leaves the shadow table in place for a from=CHECKPOINT resume
+    @Override
+    public void endReplay(boolean completed) {
+        lastKnownState.clear();
+        if (completed) {
+            transactionTemplate.executeWithoutResult(status -> swapIn());
+        }
+    }
+
+    private void swapIn() {
+        for (String entityType : rebuildRepository.findEntityTypes()) {
+            LocalDateTime from = rebuildRepository.findFirstOccurredAt(entityType).minusSeconds(RANGE_SLACK_SECONDS);
+            LocalDateTime to = rebuildRepository.findLastOccurredAt(entityType);
+            int replaced = activityLogRepository.deleteRange(entityType, from, to);
+            int copied = rebuildRepository.copyToActivityLog(entityType);
+            log.info("Activity feed rebuild: {} rows of {} between {} and {} replaced by {}", replaced, entityType, from, to, copied);
+        }
+        rebuildRepository.deleteAllInBatch();
+    }
+
+    // Entities whose latest row is a delete (no state) stay unknown, as they would in an uninterrupted replay
+    private void restoreState() {
+        for (ActivityLogRebuild latest : rebuildRepository.findLatestPerEntity()) {
+            if (latest.getState() != null) {
+                lastKnownState.put(latest.getEntityType() + ":" + latest.getEntityId(), readState(latest.getState()));
+            }
+        }
+        log.info("Activity feed rebuild: resumed with the last known state of {} entities", lastKnownState.size());
+    }
+
+    private String writeState(Map<String, Object> state) {
+        try {
+            return objectMapper.writeValueAsString(state);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize activity feed state", e);
+        }
+    }
+
+    private Map<String, Object> readState(String json) {
+        try {
+            return new HashMap<>(objectMapper.readValue(json, STATE_TYPE));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to read activity feed state", e);
+        }
+    }
+
+    private Map<String, Object> mergeState(DomainEvent event) {
+        String key = event.getEntityType() + ":" + event.getEntityId();
+        if (DomainEvent.DELETED.equals(event.getEventType())) {
+            Map<String, Object> removed = lastKnownState.remove(key);
+            return event.getPreviousValues() != null ? event.getPreviousValues() : (removed != null ? removed : Map.of());
+        }
+        Map<String, Object> state = lastKnownState.computeIfAbsent(key, k -> new HashMap<>());
+        if (event.getChangedFields() != null) {
+            state.putAll(event.getChangedFields());
+        }
+        return state;
+    }
+
+    // Mirrors the details ActivityLogService writes for live mutations
+    private String details(String entityType, Map<String, Object> state) {
+        String details;
+        switch (entityType) {
+            case ActivityLog.SHIPMENT:
+                details = state.get("origin") + " → " + state.get("destination");
+                break;
+            case ActivityLog.CARGO:
+                details = asString(state.get("type"));
+                if (state.get("shipmentId") != null) {
+                    details += " on shipment #" + state.get("shipmentId");
+                }
+                break;
+            case ActivityLog.ROUTE:
+                details = state.get("originPort") + " → " + state.get("destinationPort");
+                break;
+            case ActivityLog.VENDOR:
+                details = asString(state.get("name"));
+                break;
+            default:
+                details = "Recipient: " + state.get("recipient");
+                break;
+        }
+        return details != null && details.length() > DETAILS_MAX_LENGTH ? details.substring(0, DETAILS_MAX_LENGTH) : details;
+    }
+
+    private boolean hasStatus(String entityType) {
+        return ActivityLog.SHIPMENT.equals(entityType) || ActivityLog.ROUTE.equals(entityType) || ActivityLog.DELIVERY.equals(entityType);
+    }
+
+    private String asString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+}
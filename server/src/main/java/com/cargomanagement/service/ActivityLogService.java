@@ -0,0 +1,132 @@
+package com.cargomanagement.service;
+
+import com.cargomanagement.models.ActivityLog;
+import com.cargomanagement.models.Cargo;
+import com.cargomanagement.models.Delivery;
+import com.cargomanagement.models.Route;
+import com.cargomanagement.models.Shipment;
+import com.cargomanagement.models.Vendor;
+import com.cargomanagement.repository.ActivityLogRepository;
+import com.cargomanagement.util.KeysetCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Activity feed writes. Entries recorded inside a transaction are held until it commits and then written together
+ * in a transaction of their own, so a rolled-back change leaves no entry and a failing feed write (including one
+ * that only fails at flush or commit) never rolls back the change it describes.
+ */
+@Service
+public class ActivityLogService {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityLogService.class);
+    private static final int DETAILS_MAX_LENGTH = 255;
+
+    private final ActivityLogRepository activityLogRepository;
+    private final TransactionTemplate writeTemplate;
+
+    public ActivityLogService(ActivityLogRepository activityLogRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.activityLogRepository = activityLogRepository;
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        // After commit the caller's connection may still be bound; never join it
+        this.writeTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public void recordShipment(Shipment shipment, String action) {
+        record(ActivityLog.SHIPMENT, shipment.getShipmentId(), action, shipment.getStatus(),
+               shipment.getOrigin() + " → " + shipment.getDestination());
+    }
+
+    public void recordCargo(Cargo cargo, String action) {
+        String details = cargo.getType();
+        if (cargo.getShipment() != null) {
+            details += " on shipment #" + cargo.getShipment().getShipmentId();
+        }
+        record(ActivityLog.CARGO, cargo.getCargoId(), action, null, details);
+    }
+
+    public void recordRoute(Route route, String action) {
+        record(ActivityLog.ROUTE, route.getRouteId(), action, route.getStatus(),
+               route.getOriginPort() + " → " + route.getDestinationPort());
+    }
+
+    public void recordVendor(Vendor vendor, String action) {
+        record(ActivityLog.VENDOR, vendor.getVendorId(), action, null, vendor.getName());
+    }
+
+    public void recordDelivery(Delivery delivery, String action) {
+        record(ActivityLog.DELIVERY, delivery.getDeliveryId(), action, delivery.getStatus(),
+               "Recipient: " + delivery.getRecipient());
+    }
+
+    // The activity feed is best-effort: a failed write is logged and never fails the mutation
+    public void record(String entityType, Long entityId, String action, String status, String details) {
+        ActivityLog entry = new ActivityLog();
+        entry.setEntityType(entityType);
+        entry.setEntityId(entityId);
+        entry.setAction(action);
+        entry.setStatus(status);
+        if (details != null && details.length() > DETAILS_MAX_LENGTH) {
+            details = details.substring(0, DETAILS_MAX_LENGTH);
+        }
+        entry.setDetails(details);
+        entry.setOccurredAt(LocalDateTime.now());
+
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingEntries().entries.add(entry);
+        } else {
+            write(List.of(entry));
+        }
+    }
+
+    // One pending list per transaction, so a bulk insert writes its feed entries as one batch
+    private PendingEntries pendingEntries() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingEntries pending) {
+                return pending;
+            }
+        }
+        PendingEntries pending = new PendingEntries();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    private void write(List<ActivityLog> entries) {
+        try {
+            writeTemplate.executeWithoutResult(status -> activityLogRepository.saveAll(entries));
+        } catch (Exception e) {
+            ActivityLog first = entries.get(0);
+            log.error("Failed to record {} activity entries (first: {} {} for id {}): {}", entries.size(),
+                      first.getEntityType(), first.getAction(), first.getEntityId(), e.getMessage(), e);
+        }
+    }
+
+    public List<ActivityLog> findNewest(KeysetCursor before, int limit) {
+        if (before == null) {
+            return activityLogRepository.findNewest(PageRequest.of(0, limit));
+        }
+        return activityLogRepository.findNewestBefore(before.getTimestamp(), before.getId(), PageRequest.of(0, limit));
+    }
+
+    private class PendingEntries implements TransactionSynchronization {
+        final List<ActivityLog> entries = new ArrayList<>();
+
+        @Override
+        public void afterCommit() {
+            write(entries);
+        }
+    }
+}
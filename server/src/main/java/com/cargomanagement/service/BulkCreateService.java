@@ -0,0 +1,385 @@
+package com.cargomanagement.service;
+
+import com.cargomanagement.dto.BulkItemResult;
+import com.cargomanagement.dto.BulkResult;
+import com.cargomanagement.dto.CargoCreateRequest;
+import com.cargomanagement.models.ActivityLog;
+import com.cargomanagement.models.Cargo;
+import com.cargomanagement.models.Route;
+import com.cargomanagement.models.Shipment;
+import com.cargomanagement.models.Vendor;
+import com.cargomanagement.repository.CargoRepository;
+import com.cargomanagement.repository.RouteRepository;
+import com.cargomanagement.repository.ShipmentRepository;
+import com.cargomanagement.repository.VendorRepository;
+import com.cargomanagement.util.EntityEvents;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Bulk creation of cargo and shipments (carrier manifests).
+ * The whole payload is validated up front, with referenced shipments, routes and vendors resolved in one query each.
+ * Valid items are then written in chunks of bulk.chunk-size, one transaction per chunk: the inserts go out as
+ * JDBC batches, and each chunk writes its CREATED events (one per entity, keyed by id so per-entity order holds) to
+ * the outbox together, from where they are relayed as one producer batch.
+ * A chunk the database rejects is rolled back on its own and reported as FAILED; earlier chunks stay committed.
+ */
+@Service
+public class BulkCreateService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkCreateService.class);
+
+    private final CargoRepository cargoRepository;
+    private final ShipmentRepository shipmentRepository;
+    private final RouteRepository routeRepository;
+    private final VendorRepository vendorRepository;
+    private final KafkaProducerService kafkaProducerService;
+    private final NotificationService notificationService;
+    private final DashboardMetricsService dashboardMetricsService;
+    private final ActivityLogService activityLogService;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxItems;
+
+    public BulkCreateService(CargoRepository cargoRepository,
+                             ShipmentRepository shipmentRepository,
+                             RouteRepository routeRepository,
+                             VendorRepository vendorRepository,
+                             KafkaProducerService kafkaProducerService,
+                             NotificationService notificationService,
+                             DashboardMetricsService dashboardMetricsService,
+                             ActivityLogService activityLogService,
+                             Validator validator,
+                             EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${bulk.chunk-size:500}") int chunkSize,
+                             @Value("${bulk.max-items:10000}") int maxItems) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("bulk.chunk-size must be positive");
+        }
+        this.cargoRepository = cargoRepository;
+        this.shipmentRepository = shipmentRepository;
+        this.routeRepository = routeRepository;
+        this.vendorRepository = vendorRepository;
+        this.kafkaProducerService = kafkaProducerService;
+        this.notificationService = notificationService;
+        this.dashboardMetricsService = dashboardMetricsService;
+        this.activityLogService = activityLogService;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxItems = maxItems;
+    }
+
+    public BulkResult createCargo(List<CargoCreateRequest> requests) {
+        checkSize(requests);
+        Prepared<Cargo> prepared = prepareCargo(requests, 0);
+        List<Cargo> created = writeCargo(prepared, null);
+        notificationService.notifyCargoBatchCreated(created);
+        logSummary("Cargo", prepared.getResult());
+        return prepared.getResult();
+    }
+
+    public BulkResult createShipments(List<Shipment> requests) {
+        checkSize(requests);
+        Prepared<Shipment> prepared = prepareShipments(requests, 0);
+        List<Shipment> created = writeShipments(prepared, null);
+        notificationService.notifyShipmentBatchCreated(created);
+        logSummary("Shipment", prepared.getResult());
+        return prepared.getResult();
+    }
+
+    private void logSummary(String entityName, BulkResult result) {
+        log.info("{} batch: {} created, {} rejected, {} failed of {}", entityName,
+                 result.getCreated(), result.getRejected(), result.getFailed(), result.getTotal());
+    }
+
+    /**
+     * Validates a payload slice without writing anything. Report items are numbered from firstIndex,
+     * so a caller feeding a long stream slice by slice gets positions relative to the whole stream.
+     */
+    public Prepared<Cargo> prepareCargo(List<CargoCreateRequest> requests, long firstIndex) {
+        Prepared<Cargo> prepared = new Prepared<>(requests.size());
+        Map<Long, Shipment> shipments = findAllById(shipmentRepository,
+                requests.stream().filter(Objects::nonNull).map(CargoCreateRequest::getShipmentId), Shipment::getShipmentId);
+
+        for (int i = 0; i < requests.size(); i++) {
+            CargoCreateRequest request = requests.get(i);
+            BulkItemResult item = prepared.newItem(firstIndex + i);
+            if (request == null) {
+                prepared.reject(item, List.of("Item is empty"));
+                continue;
+            }
+            Cargo cargo = new Cargo();
+            cargo.setType(request.getType());
+            cargo.setWeight(request.getWeight());
+            cargo.setValue(request.getValue());
+            cargo.setVolume(request.getVolume());
+            cargo.setWeightUnit(request.getWeightUnit());
+            cargo.setDescription(request.getDescription());
+
+            List<String> errors = validate(cargo);
+            if (request.getShipmentId() != null) {
+                Shipment shipment = shipments.get(request.getShipmentId());
+                if (shipment == null) {
+                    errors.add("Shipment not found with id: " + request.getShipmentId());
+                }
+                cargo.setShipment(shipment);
+            }
+            if (!errors.isEmpty()) {
+                prepared.reject(item, errors);
+                continue;
+            }
+            prepared.accept(cargo, item);
+        }
+        return prepared;
+    }
+
+    public Prepared<Shipment> prepareShipments(List<Shipment> requests, long firstIndex) {
+        Prepared<Shipment> prepared = new Prepared<>(requests.size());
+        List<Shipment> present = requests.stream().filter(Objects::nonNull).toList();
+        Map<Long, Route> routes = findAllById(routeRepository,
+                present.stream().map(s -> s.getAssignedRoute() != null ? s.getAssignedRoute().getRouteId() : null), Route::getRouteId);
+        Map<Long, Vendor> vendors = findAllById(vendorRepository,
+                present.stream().map(s -> s.getAssignedVendor() != null ? s.getAssignedVendor().getVendorId() : null), Vendor::getVendorId);
+        Set<String> codes = present.stream().map(Shipment::getShipmentCode).filter(Objects::nonNull).collect(Collectors.toSet());
+        Set<String> takenCodes = codes.isEmpty() ? new HashSet<>() : new HashSet<>(shipmentRepository.findExistingShipmentCodes(codes));
+
+        for (int i = 0; i < requests.size(); i++) {
+            Shipment shipment = requests.get(i);
+            BulkItemResult item = prepared.newItem(firstIndex + i);
+            if (shipment == null) {
+                prepared.reject(item, List.of("Item is empty"));
+                continue;
+            }
+            shipment.setShipmentId(null);  // Ids are always generated
+
+            List<String> errors = validate(shipment);
+            if (shipment.getAssignedRoute() != null) {
+                Long routeId = shipment.getAssignedRoute().getRouteId();
+                shipment.setAssignedRoute(routes.get(routeId));
+                if (shipment.getAssignedRoute() == null) {
+                    errors.add("Route not found with id: " + routeId);
+                }
+            }
+            if (shipment.getAssignedVendor() != null) {
+                Long vendorId = shipment.getAssignedVendor().getVendorId();
+                shipment.setAssignedVendor(vendors.get(vendorId));
+                if (shipment.getAssignedVendor() == null) {
+                    errors.add("Vendor not found with id: " + vendorId);
+                }
+            }
+            // Also catches codes repeated within the payload: the first occurrence claims the code
+            if (shipment.getShipmentCode() != null && !takenCodes.add(shipment.getShipmentCode())) {
+                errors.add("Shipment code already exists: " + shipment.getShipmentCode());
+            }
+            if (!errors.isEmpty()) {
+                prepared.reject(item, errors);
+                continue;
+            }
+            prepared.accept(shipment, item);
+        }
+        return prepared;
+    }
+
+    /**
+     * Writes the valid items of a prepared payload, one transaction per bulk.chunk-size items, and returns the
+     * entities that were committed. inTransaction, when given, runs inside each chunk's transaction after its
+     * inserts, so bookkeeping such as import progress commits or rolls back together with the rows.
+     */
+    public List<Cargo> writeCargo(Prepared<Cargo> prepared, Runnable inTransaction) {
+        List<Cargo> created = new ArrayList<>();
+        for (int from = 0; from < prepared.valid.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, prepared.valid.size());
+            List<Cargo> chunk = prepared.valid.subList(from, to);
+            List<BulkItemResult> chunkItems = prepared.validItems.subList(from, to);
+            boolean committed = writeChunk(prepared.result, chunkItems, "cargo", () -> {
+                List<Cargo> saved = cargoRepository.saveAll(chunk);
+                for (Cargo cargo : saved) {
+                    activityLogService.recordCargo(cargo, ActivityLog.CREATED);
+                }
+                kafkaProducerService.publishAll("cargo-events", saved.stream().map(EntityEvents::created).toList());
+            }, inTransaction);
+            if (committed) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    markCreated(prepared.result, chunkItems.get(i), chunk.get(i).getCargoId());
+                    dashboardMetricsService.recordCargoCreated();
+                }
+                created.addAll(chunk);
+            }
+        }
+        return created;
+    }
+
+    public List<Shipment> writeShipments(Prepared<Shipment> prepared, Runnable inTransaction) {
+        List<Shipment> created = new ArrayList<>();
+        for (int from = 0; from < prepared.valid.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, prepared.valid.size());
+            List<Shipment> chunk = prepared.valid.subList(from, to);
+            List<BulkItemResult> chunkItems = prepared.validItems.subList(from, to);
+            boolean committed = writeChunk(prepared.result, chunkItems, "shipment", () -> {
+                List<Shipment> saved = shipmentRepository.saveAll(chunk);
+                for (Shipment shipment : saved) {
+                    activityLogService.recordShipment(shipment, ActivityLog.CREATED);
+                }
+                kafkaProducerService.publishAll("shipment-events", saved.stream().map(EntityEvents::created).toList());
+            }, inTransaction);
+            if (committed) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    markCreated(prepared.result, chunkItems.get(i), chunk.get(i).getShipmentId());
+                    dashboardMetricsService.recordShipmentCreated(chunk.get(i).getStatus());
+                }
+                created.addAll(chunk);
+            }
+        }
+        return created;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    // 201 when everything was created, 207 when only part of it was, 422 when nothing was
+    public HttpStatus responseStatus(BulkResult result) {
+        if (result.getCreated() == result.getTotal()) {
+            return HttpStatus.CREATED;
+        }
+        return result.getCreated() > 0 ? HttpStatus.MULTI_STATUS : HttpStatus.UNPROCESSABLE_ENTITY;
+    }
+
+    /**
+     * Runs one chunk in its own transaction. The persistence context is flushed (sending the JDBC batches) and
+     * cleared at the end so a large request does not keep every entity it wrote managed.
+     */
+    private boolean writeChunk(BulkResult result, List<BulkItemResult> chunkItems, String entityName,
+                               Runnable writer, Runnable inTransaction) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                writer.run();
+                if (inTransaction != null) {
+                    inTransaction.run();
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+            return true;
+        } catch (RuntimeException e) {
+            entityManager.clear();
+            String message = "Chunk rolled back: " + rootMessage(e);
+            log.warn("Bulk {} insert of {} items failed: {}", entityName, chunkItems.size(), message);
+            for (BulkItemResult item : chunkItems) {
+                item.setStatus(BulkItemResult.FAILED);
+                item.setErrors(List.of(message));
+                result.setFailed(result.getFailed() + 1);
+            }
+            return false;
+        }
+    }
+
+    private void checkSize(List<?> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one item");
+        }
+        if (requests.size() > maxItems) {
+            throw new IllegalArgumentException("Batch cannot exceed " + maxItems + " items");
+        }
+    }
+
+    private <T> Map<Long, T> findAllById(JpaRepository<T, Long> repository,
+                                         Stream<Long> ids, Function<T, Long> idOf) {
+        Set<Long> distinct = ids.filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, T> found = new HashMap<>();
+        if (!distinct.isEmpty()) {
+            for (T entity : repository.findAllById(distinct)) {
+                found.put(idOf.apply(entity), entity);
+            }
+        }
+        return found;
+    }
+
+    private List<String> validate(Object entity) {
+        List<String> errors = new ArrayList<>();
+        for (ConstraintViolation<Object> violation : validator.validate(entity)) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        return errors;
+    }
+
+    private void markCreated(BulkResult result, BulkItemResult item, Long id) {
+        item.setStatus(BulkItemResult.CREATED);
+        item.setId(id);
+        result.setCreated(result.getCreated() + 1);
+    }
+
+    private String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    /**
+     * A validated payload: the report (rejections already filled in) and the entities ready to write,
+     * aligned with their report items.
+     */
+    public static final class Prepared<T> {
+        private final BulkResult result = new BulkResult();
+        private final List<T> valid = new ArrayList<>();
+        private final List<BulkItemResult> validItems = new ArrayList<>();
+
+        Prepared(int total) {
+            result.setTotal(total);
+        }
+
+        public BulkResult getResult() {
+            return result;
+        }
+
+        public int getValidCount() {
+            return valid.size();
+        }
+
+        private BulkItemResult newItem(long index) {
+            BulkItemResult item = new BulkItemResult();
+            item.setIndex(index);
+            result.getItems().add(item);
+            return item;
+        }
+
+        private void reject(BulkItemResult item, Collection<String> errors) {
+            item.setStatus(BulkItemResult.REJECTED);
+            item.setErrors(List.copyOf(errors));
+            result.setRejected(result.getRejected() + 1);
+        }
+
+        private void accept(T entity, BulkItemResult item) {
+            valid.add(entity);
+            validItems.add(item);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.cargomanagement.service;
+
+import com.cargomanagement.dto.DomainEvent;
+import com.cargomanagement.models.ActivityLog;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rebuilds the in-memory dashboard counters from the shipment, cargo, route and vendor topics.
+ * Events are counted into a private set that replaces the live counters only when the replay completes, so the
+ * dashboard never serves partial numbers. Not checkpointed: every replay counts from the earliest offset.
+ * Cargo removed by a shipment delete cascade is not evented, and events still in the outbox when the replay
+ * starts are not in it, so the periodic reconcile (resumed after the swap) still corrects those.
+ */
+@Component
+public class DashboardCountersProjection implements EventProjection {
+
+    private final DashboardMetricsService dashboardMetricsService;
+    private volatile DashboardMetricsService.Counters counters;
+
+    public DashboardCountersProjection(DashboardMetricsService dashboardMetricsService) {
+        this.dashboardMetricsService = dashboardMetricsService;
+    }
+
+    @Override
+    public String getName() {
+        return "dashboard-counters";
+    }
+
+    @Override
+    public Set<String> getTopics() {
+        return Set.of("shipment-events", "cargo-events", "route-events", "vendor-events");
+    }
+
+    @Override
+    public boolean isCheckpointed() {
+        return false;
+    }
+
+    @Override
+    public void beginReplay(boolean resume) {
+        counters = dashboardMetricsService.beginRebuild();
+    }
+
+    @Override
+    public void endReplay(boolean completed) {
+        dashboardMetricsService.finishRebuild(counters, completed);
+        counters = null;
+    }
+
+    @Override
+    public void apply(String topic, List<DomainEvent> events) {
+        for (DomainEvent event : events) {
+            switch (event.getEntityType()) {
+                case ActivityLog.SHIPMENT:
+                    applyShipment(event);
+                    break;
+                case ActivityLog.CARGO:
+                    if (DomainEvent.CREATED.equals(event.getEventType())) {
+                        counters.cargoCreated();
+                    } else if (DomainEvent.DELETED.equals(event.getEventType())) {
+                        counters.cargoDeleted();
+                    }
+                    break;
+                case ActivityLog.ROUTE:
+                    applyRoute(event);
+                    break;
+                case ActivityLog.VENDOR:
+                    if (DomainEvent.CREATED.equals(event.getEventType())) {
+                        counters.vendorCreated();
+                    } else if (DomainEvent.DELETED.equals(event.getEventType())) {
+                        counters.vendorDeleted();
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private void applyShipment(DomainEvent event) {
+        switch (event.getEventType()) {
+            case DomainEvent.CREATED:
+                counters.shipmentCreated(status(event.getChangedFields()));
+                break;
+            case DomainEvent.UPDATED:
+                if (hasStatus(event.getChangedFields())) {
+                    counters.shipmentStatusChanged(status(event.getPreviousValues()), status(event.getChangedFields()));
+                }
+                break;
+            default:
+                counters.shipmentDeleted(status(event.getPreviousValues()), 0);
+                break;
+        }
+    }
+
+    private void applyRoute(DomainEvent event) {
+        switch (event.getEventType()) {
+            case DomainEvent.CREATED:
+                counters.routeCreated(status(event.getChangedFields()));
+                break;
+            case DomainEvent.UPDATED:
+                if (hasStatus(event.getChangedFields())) {
+                    counters.routeStatusChanged(status(event.getPreviousValues()), status(event.getChangedFields()));
+                }
+                break;
+            default:
+                counters.routeDeleted(status(event.getPreviousValues()));
+                break;
+        }
+    }
+
+    private boolean hasStatus(Map<String, Object> fields) {
+        return fields != null && fields.containsKey("status");
+    }
+
+    private String status(Map<String, Object> fields) {
+        Object status = fields != null ? fields.get("status") : null;
+        return status != null ? status.toString() : null;
+    }
+}
@@ -0,0 +1,347 @@
+package com.cargomanagement.service;
+
+import com.cargomanagement.dto.StatusCount;
+import com.cargomanagement.repository.CargoRepository;
+import com.cargomanagement.repository.RouteRepository;
+import com.cargomanagement.repository.ShipmentRepository;
+import com.cargomanagement.repository.VendorRepository;
+import com.cargomanagement.util.AfterCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory dashboard counters.
+ * Seeded from aggregate queries at startup, adjusted by the controllers on every save/delete,
+ * and periodically reconciled against the database to correct any drift.
+ * Changes recorded while a reconcile is reading the database are captured as a delta and applied on top of the
+ * fresh counts, so they are not lost when the counters are swapped. An event replay rebuilds the counters the
+ * same way, into a private set that replaces the live one only when the replay completes.
+ */
+@Service
+public class DashboardMetricsService {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardMetricsService.class);
+    private static final long UNSEEDED_RETRY_MS = 10_000;  // How often getMetrics() retries seeding while the DB is down
+
+    private final ShipmentRepository shipmentRepository;
+    private final CargoRepository cargoRepository;
+    private final RouteRepository routeRepository;
+    private final VendorRepository vendorRepository;
+
+    // Read lock: applying a change; write lock: swapping the counter set or starting/stopping delta capture
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+    private volatile Counters counters = new Counters();
+    private Counters delta;  // Guarded by swapLock; non-null while a reconcile is reading the database
+    private volatile boolean seeded;
+    private boolean rebuilding;  // Guarded by reconcileLock
+    private volatile long nextSeedAttempt;
+
+    public DashboardMetricsService(ShipmentRepository shipmentRepository,
+                                   CargoRepository cargoRepository,
+                                   RouteRepository routeRepository,
+                                   VendorRepository vendorRepository) {
+        this.shipmentRepository = shipmentRepository;
+        this.cargoRepository = cargoRepository;
+        this.routeRepository = routeRepository;
+        this.vendorRepository = vendorRepository;
+    }
+
+    public Map<String, Object> getMetrics() {
+        if (!seeded && System.currentTimeMillis() >= nextSeedAttempt && reconcileLock.tryLock()) {
+            try {
+                if (!seeded) {
+                    reconcile();
+                }
+            } finally {
+                reconcileLock.unlock();
+            }
+        }
+        return counters.toMap();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        reconcile();
+    }
+
+    // Periodic pass that overwrites the counters with database truth
+    @Scheduled(initialDelayString = "${dashboard.metrics.reconcile-interval-ms:300000}",
+               fixedDelayString = "${dashboard.metrics.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        reconcileLock.lock();
+        try {
+            if (rebuilding) {
+                log.debug("Skipping dashboard reconcile while an event replay rebuilds the counters");
+                return;
+            }
+            startDelta();
+            Counters fresh = new Counters();
+            try {
+                fresh.totalShipments.set(shipmentRepository.count());
+                fresh.activeCargo.set(cargoRepository.count());
+                fresh.availableRoutes.set(routeRepository.count());
+                fresh.partnerVendors.set(vendorRepository.count());
+                fresh.shipmentStatuses.putAll(toCounters(shipmentRepository.countGroupedByStatus()));
+                fresh.routeStatuses.putAll(toCounters(routeRepository.countGroupedByStatus()));
+            } catch (Exception e) {
+                stopDelta();
+                nextSeedAttempt = System.currentTimeMillis() + UNSEEDED_RETRY_MS;
+                log.error("Failed to reconcile dashboard counters: {}", e.getMessage(), e);
+                return;
+            }
+            swapIn(fresh);
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    /**
+     * Starts an event-replay rebuild. The replay fills the returned private set while the dashboard keeps serving
+     * the live counters; reconciles are suspended and live changes are captured as a delta until
+     * {@link #finishRebuild} swaps the result in.
+     */
+    public Counters beginRebuild() {
+        reconcileLock.lock();
+        try {
+            if (rebuilding) {
+                throw new IllegalStateException("Dashboard counters are already being rebuilt");
+            }
+            rebuilding = true;
+            startDelta();
+            return new Counters();
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    // completed=false discards the partial result and keeps the live counters
+    public void finishRebuild(Counters rebuilt, boolean completed) {
+        reconcileLock.lock();
+        try {
+            if (completed) {
+                swapIn(rebuilt);
+            } else {
+                stopDelta();
+            }
+            rebuilding = false;
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    // Mutation hooks called by the controllers after a successful save/delete; applied once the transaction commits
+
+    public void recordShipmentCreated(String status) {
+        record(c -> c.shipmentCreated(status));
+    }
+
+    public void recordShipmentStatusChanged(String oldStatus, String newStatus) {
+        if (oldStatus != null && oldStatus.equals(newStatus)) {
+            return;
+        }
+        record(c -> c.shipmentStatusChanged(oldStatus, newStatus));
+    }
+
+    // Cargo rows are removed by cascade when their shipment is deleted
+    public void recordShipmentDeleted(String status, long cascadedCargo) {
+        record(c -> c.shipmentDeleted(status, cascadedCargo));
+    }
+
+    public void recordCargoCreated() {
+        record(Counters::cargoCreated);
+    }
+
+    public void recordCargoDeleted() {
+        record(Counters::cargoDeleted);
+    }
+
+    public void recordRouteCreated(String status) {
+        record(c -> c.routeCreated(status));
+    }
+
+    public void recordRouteStatusChanged(String oldStatus, String newStatus) {
+        if (oldStatus != null && oldStatus.equals(newStatus)) {
+            return;
+        }
+        record(c -> c.routeStatusChanged(oldStatus, newStatus));
+    }
+
+    public void recordRouteDeleted(String status) {
+        record(c -> c.routeDeleted(status));
+    }
+
+    public void recordVendorCreated() {
+        record(Counters::vendorCreated);
+    }
+
+    public void recordVendorDeleted() {
+        record(Counters::vendorDeleted);
+    }
+
+    private void record(Consumer<Counters> change) {
+        AfterCommit.run(() -> {
+            swapLock.readLock().lock();
+            try {
+                change.accept(counters);
+                if (delta != null) {
+                    change.accept(delta);
+                }
+            } finally {
+                swapLock.readLock().unlock();
+            }
+        });
+    }
+
+    private void startDelta() {
+        swapLock.writeLock().lock();
+        try {
+            delta = new Counters();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    private void stopDelta() {
+        swapLock.writeLock().lock();
+        try {
+            delta = null;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    // A change committed just before a count query but recorded after the delta started is counted twice;
+    // that window is a few microseconds wide and the next reconcile corrects it
+    private void swapIn(Counters fresh) {
+        swapLock.writeLock().lock();
+        try {
+            if (delta != null) {
+                fresh.add(delta);
+            }
+            counters = fresh;
+            delta = null;
+            seeded = true;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    private Map<String, AtomicLong> toCounters(List<StatusCount> counts) {
+        Map<String, AtomicLong> result = new HashMap<>();
+        for (StatusCount count : counts) {
+            result.put(count.getStatus(), new AtomicLong(count.getCount()));
+        }
+        return result;
+    }
+
+    /**
+     * One complete set of dashboard counters. Thread-safe, so the live set can be adjusted concurrently.
+     */
+    public static class Counters {
+        private final AtomicLong totalShipments = new AtomicLong();
+        private final AtomicLong activeCargo = new AtomicLong();
+        private final AtomicLong availableRoutes = new AtomicLong();
+        private final AtomicLong partnerVendors = new AtomicLong();
+        private final ConcurrentHashMap<String, AtomicLong> shipmentStatuses = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<String, AtomicLong> routeStatuses = new ConcurrentHashMap<>();
+
+        public void shipmentCreated(String status) {
+            totalShipments.incrementAndGet();
+            adjust(shipmentStatuses, status, 1);
+        }
+
+        public void shipmentStatusChanged(String oldStatus, String newStatus) {
+            adjust(shipmentStatuses, oldStatus, -1);
+            adjust(shipmentStatuses, newStatus, 1);
+        }
+
+        public void shipmentDeleted(String status, long cascadedCargo) {
+            totalShipments.decrementAndGet();
+            adjust(shipmentStatuses, status, -1);
+            activeCargo.addAndGet(-cascadedCargo);
+        }
+
+        public void cargoCreated() {
+            activeCargo.incrementAndGet();
+        }
+
+        public void cargoDeleted() {
+            activeCargo.decrementAndGet();
+        }
+
+        public void routeCreated(String status) {
+            availableRoutes.incrementAndGet();
+            adjust(routeStatuses, status, 1);
+        }
+
+        public void routeStatusChanged(String oldStatus, String newStatus) {
+            adjust(routeStatuses, oldStatus, -1);
+            adjust(routeStatuses, newStatus, 1);
+        }
+
+        public void routeDeleted(String status) {
+            availableRoutes.decrementAndGet();
+            adjust(routeStatuses, status, -1);
+        }
+
+        public void vendorCreated() {
+            partnerVendors.incrementAndGet();
+        }
+
+        public void vendorDeleted() {
+            partnerVendors.decrementAndGet();
+        }
+
+        void add(Counters other) {
+            totalShipments.addAndGet(other.totalShipments.get());
+            activeCargo.addAndGet(other.activeCargo.get());
+            availableRoutes.addAndGet(other.availableRoutes.get());
+            partnerVendors.addAndGet(other.partnerVendors.get());
+            other.shipmentStatuses.forEach((status, count) -> adjust(shipmentStatuses, status, count.get()));
+            other.routeStatuses.forEach((status, count) -> adjust(routeStatuses, status, count.get()));
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> metrics = new HashMap<>();
+            metrics.put("totalShipments", totalShipments.get());
+            metrics.put("activeCargo", activeCargo.get());
+            metrics.put("availableRoutes", availableRoutes.get());
+            metrics.put("partnerVendors", partnerVendors.get());
+            metrics.put("shipmentStatuses", snapshot(shipmentStatuses));
+            metrics.put("routeStatuses", snapshot(routeStatuses));
+            return metrics;
+        }
+
+        private static void adjust(ConcurrentHashMap<String, AtomicLong> counters, String status, long delta) {
+            if (status == null) {
+                return;
+            }
+            counters.computeIfAbsent(status, key -> new AtomicLong()).addAndGet(delta);
+        }
+
+        private static Map<String, Long> snapshot(Map<String, AtomicLong> counters) {
+            Map<String, Long> result = new HashMap<>();
+            counters.forEach((status, count) -> {
+                long value = count.get();
+                if (value > 0) {
+                    result.put(status, value);
+                }
+            });
+            return result;
+        }
+    }
+}
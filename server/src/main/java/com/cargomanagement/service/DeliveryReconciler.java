@@ -0,0 +1,74 @@
+package com.cargomanagement.service;
+
+import com.cargomanagement.repository.DeliveryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Removes delivery records whose shipment is no longer "Delivered".
+ * Works in bounded id batches, each in its own short transaction, so it never loads the table into heap.
+ */
+@Service
+public class DeliveryReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(DeliveryReconciler.class);
+    private static final String DELIVERED = "Delivered";
+
+    private final DeliveryRepository deliveryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+
+    public DeliveryReconciler(DeliveryRepository deliveryRepository,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${deliveries.reconcile.batch-size:500}") int batchSize) {
+        this.deliveryRepository = deliveryRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelayString = "${deliveries.reconcile.interval-ms:600000}",
+               fixedDelayString = "${deliveries.reconcile.interval-ms:600000}")
+    public void scheduledRun() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.error("Delivery reconciliation failed: {}", e.getMessage(), e);
+        }
+    }
+
+    // Returns the number of removed deliveries
+    public int reconcile() {
+        reconcileLock.lock();
+        try {
+            int total = 0;
+            while (true) {
+                Integer deleted = transactionTemplate.execute(status -> {
+                    List<Long> ids = deliveryRepository.findIdsByShipmentStatusNot(DELIVERED, PageRequest.of(0, batchSize));
+                    return ids.isEmpty() ? 0 : deliveryRepository.deleteAllByIdIn(ids);
+                });
+                if (deleted == null || deleted == 0) {
+                    break;
+                }
+                total += deleted;
+                if (deleted < batchSize) {
+                    break;
+                }
+            }
+            if (total > 0) {
+                log.info("Removed {} inconsistent delivery records", total);
+            }
+            return total;
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.cargomanagement.service;
+
+import com.cargomanagement.config.WorkerThreadFactory;
+import com.cargomanagement.dto.EmailMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends emails off the request thread.
+ * A bounded queue feeds a fixed worker pool; failed sends are retried with exponential backoff (capped at
+ * notification.dispatch.max-backoff-ms) and end up in an in-memory dead-letter store once retries are exhausted
+ * or the queue is full.
+ */
+@Service
+public class EmailDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailDispatcher.class);
+
+    private final JavaMailSender mailSender;
+    private final String fromAddress;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final int deadLetterCapacity;
+
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService retryScheduler;
+    private final AtomicInteger pendingRetries = new AtomicInteger();
+    private final Deque<EmailMessage> deadLetters = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger deadLetterCount = new AtomicInteger();
+
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter rejectedCounter;
+    private final Counter deadLetteredCounter;
+
+    public EmailDispatcher(JavaMailSender mailSender,
+                           MeterRegistry meterRegistry,
+                           WorkerThreadFactory workerThreadFactory,
+                           @Value("${notification.email.from:}") String fromAddress,
+                           @Value("${notification.dispatch.workers:4}") int workerCount,
+                           @Value("${notification.dispatch.queue-capacity:1000}") int queueCapacity,
+                           @Value("${notification.dispatch.max-attempts:4}") int maxAttempts,
+                           @Value("${notification.dispatch.initial-backoff-ms:1000}") long initialBackoffMillis,
+                           @Value("${notification.dispatch.max-backoff-ms:60000}") long maxBackoffMillis,
+                           @Value("${notification.dispatch.dead-letter-capacity:500}") int deadLetterCapacity) {
+        this.mailSender = mailSender;
+        this.fromAddress = fromAddress;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.deadLetterCapacity = deadLetterCapacity;
+
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), workerThreadFactory.create("email-dispatch-"));
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("email-retry-"));
+
+        Gauge.builder("notifications.email.queue.depth", workers, pool -> pool.getQueue().size())
+            .description("Emails waiting for a dispatch worker")
+            .register(meterRegistry);
+        Gauge.builder("notifications.email.retry.pending", pendingRetries, AtomicInteger::get)
+            .description("Emails waiting for a retry backoff to elapse")
+            .register(meterRegistry);
+        Gauge.builder("notifications.email.dead.letters", deadLetterCount, AtomicInteger::get)
+            .description("Emails held in the dead-letter store")
+            .register(meterRegistry);
+        this.sentCounter = meterRegistry.counter("notifications.email.sent");
+        this.retriedCounter = meterRegistry.counter("notifications.email.retried");
+        this.rejectedCounter = meterRegistry.counter("notifications.email.rejected");
+        this.deadLetteredCounter = meterRegistry.counter("notifications.email.dead.lettered");
+    }
+
+    // Never blocks the caller; a full queue sends the message straight to the dead-letter store
+    public boolean dispatch(EmailMessage message) {
+        try {
+            workers.execute(() -> deliver(message));
+            return true;
+        } catch (RejectedExecutionException ex) {
+            rejectedCounter.increment();
+            message.setLastError("Dispatch queue full");
+            deadLetter(message);
+            return false;
+        }
+    }
+
+    public List<EmailMessage> getDeadLetters() {
+        return new ArrayList<>(deadLetters);
+    }
+
+    // Re-queues every dead letter with a fresh attempt budget; returns how many were accepted
+    public int redriveDeadLetters() {
+        int accepted = 0;
+        EmailMessage message;
+        while ((message = deadLetters.pollFirst()) != null) {
+            deadLetterCount.decrementAndGet();
+            message.setAttempts(0);
+            if (dispatch(message)) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    public int getQueueDepth() {
+        return workers.getQueue().size();
+    }
+
+    private void deliver(EmailMessage message) {
+        try {
+            send(message);
+            sentCounter.increment();
+            log.info("Sent {}email notification '{}' to {}", message.isHtml() ? "HTML " : "", message.getSubject(), message.getRecipients());
+        } catch (Exception ex) {
+            message.setAttempts(message.getAttempts() + 1);
+            message.setLastError(ex.getMessage());
+            if (message.getAttempts() >= maxAttempts) {
+                log.error("Giving up on email notification '{}' after {} attempts: {}", message.getSubject(), message.getAttempts(), ex.getMessage(), ex);
+                deadLetter(message);
+                return;
+            }
+            // The exponent is clamped so a large max-attempts cannot shift the delay into overflow
+            long delay = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(message.getAttempts() - 1, 20));
+            log.warn("Failed to send email notification '{}' (attempt {}), retrying in {} ms: {}", message.getSubject(), message.getAttempts(), delay, ex.getMessage());
+            retriedCounter.increment();
+            pendingRetries.incrementAndGet();
+            retryScheduler.schedule(() -> {
+                pendingRetries.decrementAndGet();
+                dispatch(message);
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void send(EmailMessage email) throws Exception {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, email.isHtml(), StandardCharsets.UTF_8.name());
+        helper.setTo(email.getRecipients().toArray(String[]::new));
+        if (StringUtils.hasText(fromAddress)) {
+            helper.setFrom(fromAddress);
+        }
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getBody(), email.isHtml());
+        mailSender.send(message);
+    }
+
+    private void deadLetter(EmailMessage message) {
+        deadLetteredCounter.increment();
+        deadLetters.addLast(message);
+        if (deadLetterCount.incrementAndGet() > deadLetterCapacity && deadLetters.pollFirst() != null) {
+            deadLetterCount.decrementAndGet();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        retryScheduler.shutdownNow();
+        workers.shutdown();
+        if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Email dispatch queue still had {} messages at shutdown", workers.getQueue().size());
+            workers.shutdownNow();
+        }
+    }
+}
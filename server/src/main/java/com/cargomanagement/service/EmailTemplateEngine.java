@@ -0,0 +1,107 @@
+package com.cargomanagement.service;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders HTML email templates from classpath:templates/email/*.html.
+ * Each template is parsed once at startup into literal and {{placeholder}} segments;
+ * rendering appends them into a per-thread reusable buffer and HTML-escapes every value.
+ */
+@Service
+public class EmailTemplateEngine {
+
+    private static final String TEMPLATE_LOCATION = "classpath:templates/email/*.html";
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final Map<String, CompiledTemplate> templates = new HashMap<>();
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(16 * 1024));
+
+    public EmailTemplateEngine() {
+        try {
+            Resource[] resources = new PathMatchingResourcePatternResolver().getResources(TEMPLATE_LOCATION);
+            for (Resource resource : resources) {
+                String filename = resource.getFilename();
+                String name = filename.substring(0, filename.length() - ".html".length());
+                try (InputStream in = resource.getInputStream()) {
+                    templates.put(name, compile(new String(in.readAllBytes(), StandardCharsets.UTF_8)));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load email templates", e);
+        }
+    }
+
+    public String render(String templateName, Map<String, String> values) {
+        CompiledTemplate template = templates.get(templateName);
+        if (template == null) {
+            throw new IllegalArgumentException("Unknown email template: " + templateName);
+        }
+
+        StringBuilder out = buffers.get();
+        out.setLength(0);
+        for (int i = 0; i < template.placeholders.length; i++) {
+            out.append(template.literals[i]);
+            appendEscaped(out, values.get(template.placeholders[i]));
+        }
+        out.append(template.literals[template.placeholders.length]);
+        return out.toString();
+    }
+
+    static CompiledTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int start = source.indexOf(OPEN, position);
+            int end = start < 0 ? -1 : source.indexOf(CLOSE, start + OPEN.length());
+            if (start < 0 || end < 0) {
+                literals.add(source.substring(position));
+                break;
+            }
+            literals.add(source.substring(position, start));
+            placeholders.add(source.substring(start + OPEN.length(), end).trim());
+            position = end + CLOSE.length();
+        }
+        return new CompiledTemplate(literals.toArray(String[]::new), placeholders.toArray(String[]::new));
+    }
+
+    private static void appendEscaped(StringBuilder out, String value) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    // literals.length == placeholders.length + 1; literals and placeholders alternate
+    static final class CompiledTemplate {
+        private final String[] literals;
+        private final String[] placeholders;
+
+        private CompiledTemplate(String[] literals, String[] placeholders) {
+            this.literals = literals;
+            this.placeholders = placeholders;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.cargomanagement.service;
+
+import com.cargomanagement.dto.DomainEvent;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A read model that can be rebuilt by replaying the *-events topics through {@link EventReplayService}.
+ * Replays run one worker per partition, so apply() is called concurrently for different partitions;
+ * events of one entity always arrive on the same partition and in order.
+ */
+public interface EventProjection {
+
+    // Unique name used in replay requests and checkpoints
+    String getName();
+
+    // Topics this projection consumes by default
+    Set<String> getTopics();
+
+    // False for read models held in memory: they do not survive a restart, so every replay rebuilds them from
+    // scratch (reset=true, from EARLIEST) and no checkpoints are written for them
+    default boolean isCheckpointed() {
+        return true;
+    }
+
+    // Called once before a replay starts; resume=true when the replay continues from the stored checkpoints,
+    // otherwise the projection starts a fresh build
+    default void beginReplay(boolean resume) {
+    }
+
+    // One poll worth of events from a single partition; runs in the same transaction as the checkpoint write
+    void apply(String topic, List<DomainEvent> events);
+
+    // Called once after every partition worker finished; completed=false when the replay failed
+    default void endReplay(boolean completed) {
+    }
+}
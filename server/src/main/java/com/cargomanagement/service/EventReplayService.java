@@ -0,0 +1,334 @@
+package com.cargomanagement.service;
+
+import com.cargomanagement.config.WorkerThreadFactory;
+import com.cargomanagement.dto.DomainEvent;
+import com.cargomanagement.dto.ReplayJob;
+import com.cargomanagement.dto.ReplayRequest;
+import com.cargomanagement.models.ReplayCheckpoint;
+import com.cargomanagement.repository.ReplayCheckpointRepository;
+import com.cargomanagement.util.EntityEvents;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Rebuilds {@link EventProjection} read models from the *-events topics instead of scanning PostgreSQL.
+ * Each partition is replayed by its own worker with its own consumer, from the requested start position
+ * up to the end offset captured when the job started. After every poll the projection update and the
+ * partition checkpoint (replay_checkpoint) are written in one transaction, so an interrupted replay can
+ * resume with from=CHECKPOINT without re-applying events. Projections held in memory are not checkpointed
+ * and can only be rebuilt from scratch.
+ */
+@Service
+public class EventReplayService {
+
+    private static final Logger log = LoggerFactory.getLogger(EventReplayService.class);
+
+    public static final String FROM_EARLIEST = "EARLIEST";
+    public static final String FROM_OFFSET = "OFFSET";
+    public static final String FROM_TIMESTAMP = "TIMESTAMP";
+    public static final String FROM_CHECKPOINT = "CHECKPOINT";
+
+    private static final String REPLAY_GROUP = "supply-chain-replay";
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+    private static final Duration METADATA_TIMEOUT = Duration.ofSeconds(10);
+    private static final int MAX_RETAINED_JOBS = 50;
+
+    private final Map<String, EventProjection> projections = new LinkedHashMap<>();
+    private final ConsumerFactory<Object, Object> consumerFactory;
+    private final ReplayCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService workers;
+    private final int maxPollRecords;
+    private final Map<String, ReplayJob> jobs = new ConcurrentHashMap<>();
+    private final Set<String> runningProjections = ConcurrentHashMap.newKeySet();
+
+    public EventReplayService(List<EventProjection> projections,
+                              ConsumerFactory<Object, Object> consumerFactory,
+                              ReplayCheckpointRepository checkpointRepository,
+                              TransactionTemplate transactionTemplate,
+                              ObjectMapper objectMapper,
+                              WorkerThreadFactory workerThreadFactory,
+                              @Value("${replay.max-parallelism:4}") int maxParallelism,
+                              @Value("${replay.max-poll-records:1000}") int maxPollRecords) {
+        projections.forEach(projection -> this.projections.put(projection.getName(), projection));
+        this.consumerFactory = consumerFactory;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.maxPollRecords = maxPollRecords;
+        this.workers = Executors.newFixedThreadPool(maxParallelism, workerThreadFactory.create("event-replay-"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    public Collection<String> getProjectionNames() {
+        return projections.keySet();
+    }
+
+    public Collection<ReplayJob> getJobs() {
+        return jobs.values();
+    }
+
+    public ReplayJob getJob(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    public ReplayJob start(ReplayRequest request) {
+        EventProjection projection = projections.get(request.getProjection());
+        if (projection == null) {
+            throw new IllegalArgumentException("Unknown projection: " + request.getProjection() + " (expected one of " + projections.keySet() + ")");
+        }
+        List<String> topics = request.getTopics() != null && !request.getTopics().isEmpty()
+                ? request.getTopics() : new ArrayList<>(projection.getTopics());
+        for (String topic : topics) {
+            if (!KafkaDeadLetterService.SOURCE_TOPICS.contains(topic)) {
+                throw new IllegalArgumentException("Unknown topic: " + topic);
+            }
+        }
+        String from = request.getFrom() != null ? request.getFrom().toUpperCase() : FROM_CHECKPOINT;
+        // A reset read model cannot resume from old checkpoints
+        if (request.isReset() && FROM_CHECKPOINT.equals(from)) {
+            from = FROM_EARLIEST;
+        }
+        validateStart(from, request);
+        if (!projection.isCheckpointed() && !(request.isReset() && FROM_EARLIEST.equals(from))) {
+            throw new IllegalArgumentException(projection.getName() + " is held in memory and can only be rebuilt from scratch: "
+                                               + "use reset=true with from=EARLIEST");
+        }
+
+        if (!runningProjections.add(projection.getName())) {
+            throw new IllegalStateException("A replay of " + projection.getName() + " is already running");
+        }
+
+        ReplayJob job = new ReplayJob();
+        job.setJobId(UUID.randomUUID().toString());
+        job.setProjection(projection.getName());
+        job.setTopics(topics);
+        job.setFrom(from);
+        job.setState(ReplayJob.RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+
+        List<CompletableFuture<Void>> partitionRuns = new ArrayList<>();
+        try {
+            Map<TopicPartition, long[]> ranges = plan(projection, topics, from, request);
+            projection.beginReplay(FROM_CHECKPOINT.equals(from));
+            ranges.forEach((partition, range) -> {
+                job.getPositions().put(partition.toString(), range[0]);
+                job.getEndOffsets().put(partition.toString(), range[1]);
+                if (range[0] < range[1]) {
+                    partitionRuns.add(CompletableFuture.runAsync(
+                        () -> replayPartition(job, projection, partition, range[0], range[1]), workers));
+                }
+            });
+        } catch (RuntimeException e) {
+            runningProjections.remove(projection.getName());
+            throw e;
+        }
+
+        retain(job);
+        CompletableFuture.allOf(partitionRuns.toArray(new CompletableFuture<?>[0])).whenComplete((ignored, error) -> {
+            Throwable failure = error != null && error.getCause() != null ? error.getCause() : error;
+            try {
+                projection.endReplay(failure == null);
+            } catch (RuntimeException e) {
+                failure = failure != null ? failure : e;
+            } finally {
+                job.setFinishedAt(LocalDateTime.now());
+                if (failure != null) {
+                    job.setError(failure.getMessage());
+                    job.setState(ReplayJob.FAILED);
+                    log.error("Replay {} of {} failed: {}", job.getJobId(), job.getProjection(), failure.getMessage(), failure);
+                } else {
+                    job.setState(ReplayJob.COMPLETED);
+                    log.info("Replay {} of {} completed: {} events applied, {} skipped",
+                             job.getJobId(), job.getProjection(), job.getEventsApplied(), job.getEventsSkipped());
+                }
+                runningProjections.remove(projection.getName());
+            }
+        });
+        return job;
+    }
+
+    private void validateStart(String from, ReplayRequest request) {
+        switch (from) {
+            case FROM_EARLIEST:
+            case FROM_CHECKPOINT:
+                break;
+            case FROM_OFFSET:
+                if (request.getOffset() == null || request.getOffset() < 0) {
+                    throw new IllegalArgumentException("from=OFFSET requires a non-negative offset");
+                }
+                break;
+            case FROM_TIMESTAMP:
+                if (request.getTimestamp() == null || request.getTimestamp() < 0) {
+                    throw new IllegalArgumentException("from=TIMESTAMP requires an epoch-millis timestamp");
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown start position: " + from + " (expected EARLIEST, OFFSET, TIMESTAMP or CHECKPOINT)");
+        }
+    }
+
+    // [start, end) per partition; end is fixed at job start so the replay is bounded while live events keep arriving
+    private Map<TopicPartition, long[]> plan(EventProjection projection, List<String> topics, String from, ReplayRequest request) {
+        try (Consumer<Object, Object> consumer = createConsumer()) {
+            List<TopicPartition> partitions = new ArrayList<>();
+            for (String topic : topics) {
+                List<PartitionInfo> infos = consumer.partitionsFor(topic, METADATA_TIMEOUT);
+                if (infos != null) {
+                    infos.forEach(info -> partitions.add(new TopicPartition(info.topic(), info.partition())));
+                }
+            }
+            Map<TopicPartition, Long> beginning = consumer.beginningOffsets(partitions, METADATA_TIMEOUT);
+            Map<TopicPartition, Long> end = consumer.endOffsets(partitions, METADATA_TIMEOUT);
+            Map<TopicPartition, OffsetAndTimestamp> byTime = Map.of();
+            if (FROM_TIMESTAMP.equals(from)) {
+                Map<TopicPartition, Long> query = new HashMap<>();
+                partitions.forEach(partition -> query.put(partition, request.getTimestamp()));
+                byTime = consumer.offsetsForTimes(query, METADATA_TIMEOUT);
+            }
+
+            Map<TopicPartition, long[]> ranges = new LinkedHashMap<>();
+            for (TopicPartition partition : partitions) {
+                long first = beginning.get(partition);
+                long last = end.get(partition);
+                long start;
+                switch (from) {
+                    case FROM_OFFSET:
+                        start = request.getOffset();
+                        break;
+                    case FROM_TIMESTAMP:
+                        OffsetAndTimestamp found = byTime.get(partition);
+                        start = found != null ? found.offset() : last;
+                        break;
+                    case FROM_CHECKPOINT:
+                        start = checkpointRepository
+                            .findByProjectionAndTopicAndPartition(projection.getName(), partition.topic(), partition.partition())
+                            .map(ReplayCheckpoint::getNextOffset)
+                            .orElse(first);
+                        break;
+                    default:
+                        start = first;
+                        break;
+                }
+                ranges.put(partition, new long[] {Math.min(Math.max(start, first), last), last});
+            }
+            return ranges;
+        }
+    }
+
+    private void replayPartition(ReplayJob job, EventProjection projection, TopicPartition partition, long start, long end) {
+        try (Consumer<Object, Object> consumer = createConsumer()) {
+            consumer.assign(List.of(partition));
+            consumer.seek(partition, start);
+            long position = start;
+            while (position < end && !Thread.currentThread().isInterrupted()) {
+                List<DomainEvent> events = new ArrayList<>();
+                long skipped = 0;
+                for (ConsumerRecord<Object, Object> record : consumer.poll(POLL_TIMEOUT).records(partition)) {
+                    if (record.offset() >= end) {
+                        break;
+                    }
+                    DomainEvent event = parse(record);
+                    if (event != null) {
+                        events.addAll(EntityEvents.expand(event));
+                    } else {
+                        skipped++;
+                    }
+                }
+                // Position also advances over compacted or transactional-marker gaps
+                long next = Math.min(consumer.position(partition), end);
+                if (next == position) {
+                    continue;
+                }
+                long checkpoint = next;
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (!events.isEmpty()) {
+                        projection.apply(partition.topic(), events);
+                    }
+                    if (projection.isCheckpointed()) {
+                        saveCheckpoint(projection.getName(), partition, checkpoint);
+                    }
+                });
+                position = next;
+                job.getPositions().put(partition.toString(), position);
+                job.addProgress(events.size(), skipped);
+            }
+        }
+    }
+
+    // Records written before the typed envelope (plain text) cannot be projected and are counted as skipped
+    private DomainEvent parse(ConsumerRecord<Object, Object> record) {
+        try {
+            DomainEvent event = objectMapper.readValue(String.valueOf(record.value()), DomainEvent.class);
+            return event.getEntityType() != null && event.getEventType() != null ? event : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private void saveCheckpoint(String projection, TopicPartition partition, long nextOffset) {
+        ReplayCheckpoint checkpoint = checkpointRepository
+            .findByProjectionAndTopicAndPartition(projection, partition.topic(), partition.partition())
+            .orElseGet(() -> {
+                ReplayCheckpoint created = new ReplayCheckpoint();
+                created.setProjection(projection);
+                created.setTopic(partition.topic());
+                created.setPartition(partition.partition());
+                return created;
+            });
+        checkpoint.setNextOffset(nextOffset);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        checkpointRepository.save(checkpoint);
+    }
+
+    private Consumer<Object, Object> createConsumer() {
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(maxPollRecords));
+        return consumerFactory.createConsumer(REPLAY_GROUP, null, "-replay", overrides);
+    }
+
+    // Keeps the job list bounded by dropping the oldest finished jobs
+    private void retain(ReplayJob job) {
+        jobs.put(job.getJobId(), job);
+        if (jobs.size() > MAX_RETAINED_JOBS) {
+            jobs.values().stream()
+                .filter(existing -> !ReplayJob.RUNNING.equals(existing.getState()))
+                .min((a, b) -> a.getStartedAt().compareTo(b.getStartedAt()))
+                .ifPresent(oldest -> jobs.remove(oldest.getJobId()));
+        }
+    }
+}
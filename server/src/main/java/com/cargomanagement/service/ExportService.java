@@ -0,0 +1,251 @@
+package com.cargomanagement.service;
+
+import com.cargomanagement.util.CsvWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming CSV / NDJSON export of shipments, cargo and deliveries.
+ * Rows come from a forward-only JDBC cursor (the read-only transaction lets the PostgreSQL driver honour
+ * export.fetch-size instead of materializing the whole result) and are written to the output stream as they
+ * are read, so memory use is one fetch window regardless of table size. Column names match the import
+ * field names, so a cargo or shipment export can be fed back into /api/import.
+ *
+ * An export holds a pool connection and a database snapshot for as long as the client takes to download it, so
+ * at most export.max-concurrent run at once (further requests get {@link TooManyExportsException} before a
+ * connection is taken) and each one is cut off after export.timeout-ms.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportService.class);
+
+    public static final String CSV = ManifestImportService.CSV;
+    public static final String NDJSON = ManifestImportService.NDJSON;
+
+    // Ordered by primary key so repeated exports are stable
+    private static final Map<String, String> QUERIES = Map.of(
+        "shipments",
+        "SELECT shipment_id AS \"shipmentId\", shipment_code AS \"shipmentCode\", origin, destination, status, " +
+        "estimated_delivery AS \"estimatedDelivery\", route_id AS \"routeId\", vendor_id AS \"vendorId\", " +
+        "created_at AS \"createdAt\", updated_at AS \"updatedAt\" FROM shipment ORDER BY shipment_id",
+        "cargo",
+        "SELECT cargo_id AS \"cargoId\", shipment_id AS \"shipmentId\", type, value, weight, " +
+        "weight_unit AS \"weightUnit\", volume, description, created_at AS \"createdAt\" FROM cargo ORDER BY cargo_id",
+        "deliveries",
+        "SELECT delivery_id AS \"deliveryId\", shipment_id AS \"shipmentId\", recipient, status, " +
+        "actual_delivery_date AS \"actualDeliveryDate\", created_at AS \"createdAt\" FROM deliveries ORDER BY delivery_id"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Semaphore permits;
+    private final long timeoutMs;
+
+    public ExportService(DataSource dataSource,
+                         ObjectMapper objectMapper,
+                         @Value("${export.fetch-size:1000}") int fetchSize,
+                         @Value("${export.max-concurrent:4}") int maxConcurrent,
+                         @Value("${export.timeout-ms:600000}") long timeoutMs) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        // A JDBC-only transaction of its own: the cursor needs autocommit off, and the timeout also bounds the query
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMs)));
+        this.objectMapper = objectMapper;
+        this.permits = new Semaphore(maxConcurrent);
+        this.timeoutMs = timeoutMs;
+    }
+
+    public boolean isDataset(String dataset) {
+        return QUERIES.containsKey(dataset);
+    }
+
+    /**
+     * Writes the whole dataset to out and returns the number of rows. The caller owns the stream;
+     * a failure part-way (typically the client disconnecting) surfaces as an {@link UncheckedIOException},
+     * and an export still running after export.timeout-ms stops with a {@link QueryTimeoutException}.
+     *
+     * @throws TooManyExportsException when export.max-concurrent exports are already running; nothing is written
+     */
+    public long export(String dataset, String format, OutputStream out) throws IOException {
+        String sql = QUERIES.get(dataset);
+        if (sql == null) {
+            throw new IllegalArgumentException("Unknown export dataset: " + dataset + " (expected one of " + QUERIES.keySet() + ")");
+        }
+        if (!permits.tryAcquire()) {
+            throw new TooManyExportsException("Too many exports in progress, try again later");
+        }
+        try {
+            long start = System.currentTimeMillis();
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            RowWriter rows = CSV.equals(format) ? new CsvRows(writer) : new NdjsonRows(writer);
+            rows.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            long count = transactionTemplate.execute(status -> jdbcTemplate.query(sql, rows));
+            writer.flush();
+            log.info("Exported {} {} rows as {} in {} ms", count, dataset, format, System.currentTimeMillis() - start);
+            return count;
+        } finally {
+            permits.release();
+        }
+    }
+
+    // JDBC types mapped to what the import side parses back: ISO dates, plain decimals
+    private static Object value(ResultSet rs, int column) throws SQLException {
+        Object value = rs.getObject(column);
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toLocalDateTime().toString();
+        }
+        if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate().toString();
+        }
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        }
+        return value;
+    }
+
+    // Walks the cursor once; the header (CSV) comes from the result metadata, so an empty table still gets one
+    private abstract static class RowWriter implements ResultSetExtractor<Long> {
+        String[] columns;
+        long deadline;
+
+        @Override
+        public Long extractData(ResultSet rs) throws SQLException {
+            try {
+                ResultSetMetaData meta = rs.getMetaData();
+                columns = new String[meta.getColumnCount()];
+                for (int i = 0; i < columns.length; i++) {
+                    columns[i] = meta.getColumnLabel(i + 1);
+                }
+                start();
+                long count = 0;
+                while (rs.next()) {
+                    // The statement timeout only covers the query; a slow download is bounded here
+                    if (count % 1000 == 0 && System.nanoTime() > deadline) {
+                        throw new QueryTimeoutException("Export stopped after " + count + " rows: export.timeout-ms exceeded");
+                    }
+                    write(rs);
+                    count++;
+                }
+                finish();
+                return count;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        abstract void start() throws IOException;
+
+        abstract void write(ResultSet rs) throws IOException, SQLException;
+
+        void finish() throws IOException {
+        }
+    }
+
+    // Not a 5xx: the client should retry once one of the running exports has finished
+    public static final class TooManyExportsException extends IllegalStateException {
+        private static final long serialVersionUID = 1L;
+
+        TooManyExportsException(String message) {
+            super(message);
+        }
+    }
+
+    private static final class CsvRows extends RowWriter {
+        private final CsvWriter csv;
+
+        CsvRows(Writer writer) {
+            this.csv = new CsvWriter(writer);
+        }
+
+        @Override
+        void start() throws IOException {
+            csv.writeRecord((Object[]) columns);
+        }
+
+        @Override
+        void write(ResultSet rs) throws IOException, SQLException {
+            Object[] fields = new Object[columns.length];
+            for (int i = 0; i < fields.length; i++) {
+                fields[i] = value(rs, i + 1);
+            }
+            csv.writeRecord(fields);
+        }
+    }
+
+    private final class NdjsonRows extends RowWriter {
+        private final Writer writer;
+        private JsonGenerator generator;
+
+        NdjsonRows(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        void start() throws IOException {
+            generator = objectMapper.getFactory().createGenerator(writer);
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        void write(ResultSet rs) throws IOException, SQLException {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                Object value = rs.getObject(i + 1);
+                generator.writeFieldName(columns[i]);
+                // Written directly: writeObject goes through the ObjectMapper, which flushes the stream after every value
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof BigDecimal) {
+                    generator.writeNumber((BigDecimal) value);  // Numbers stay numbers in JSON
+                } else if (value instanceof Long || value instanceof Integer || value instanceof Short) {
+                    generator.writeNumber(((Number) value).longValue());
+                } else if (value instanceof Number) {
+                    generator.writeNumber(value.toString());
+                } else if (value instanceof Boolean) {
+                    generator.writeBoolean((Boolean) value);
+                } else {
+                    generator.writeString(value(rs, i + 1).toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        void finish() throws IOException {
+            if (generator != null) {
+                generator.flush();
+            }
+        }
+    }
+}
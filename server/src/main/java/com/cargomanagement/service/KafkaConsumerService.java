@@ -1,48 +1,217 @@
 package com.cargomanagement.service;
 
+import com.cargomanagement.dto.DomainEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.messaging.MessagingException;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Batch listeners feeding the WebSocket destinations. With coalescing on (websocket.coalesce.window-ms > 0)
+ * events are handed to {@link WebSocketFanout}, which merges them per entity and sends once per window;
+ * otherwise each poll is forwarded directly as a single frame holding a JSON array of the events in partition order.
+ * Concurrency per topic is configurable; more consumers than partitions leaves the extra ones idle.
+ * Remaining lag per partition is exported as kafka.consumer.lag.
+ * Failures are handled by the listenerErrorHandler (bounded retry, then <topic>.DLT). That only covers frames sent
+ * from the listener: with coalescing on, frames go out after the batch is acknowledged and a failed send is dropped.
+ */
 @Service
 public class KafkaConsumerService {
 
+    private static final Logger log = LoggerFactory.getLogger(KafkaConsumerService.class);
+
     private final SimpMessagingTemplate messagingTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final WebSocketFanout webSocketFanout;
+    private final Map<TopicPartition, AtomicLong> lagByPartition = new ConcurrentHashMap<>();
 
     @Autowired
-    public KafkaConsumerService(SimpMessagingTemplate messagingTemplate) {
+    public KafkaConsumerService(SimpMessagingTemplate messagingTemplate,
+                                MeterRegistry meterRegistry,
+                                ObjectMapper objectMapper,
+                                WebSocketFanout webSocketFanout) {
         this.messagingTemplate = messagingTemplate;
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+        this.webSocketFanout = webSocketFanout;
+    }
+
+    @KafkaListener(topics = "shipment-events", groupId = "supply-chain-group",
+                   containerFactory = "batchKafkaListenerContainerFactory",
+                   concurrency = "${kafka.consumer.concurrency.shipment-events:3}")
+    public void consumeShipmentEvents(List<ConsumerRecord<String, String>> records, Consumer<?, ?> consumer) {
+        // Send to WebSocket clients subscribed to /topic/shipments, and per shipment to /topic/shipments/{id}
+        dispatch("/topic/shipments", "/topic/shipments/", records, consumer);
+    }
+
+    @KafkaListener(topics = "delivery-events", groupId = "supply-chain-group",
+                   containerFactory = "batchKafkaListenerContainerFactory",
+                   concurrency = "${kafka.consumer.concurrency.delivery-events:1}")
+    public void consumeDeliveryEvents(List<ConsumerRecord<String, String>> records, Consumer<?, ?> consumer) {
+        dispatch("/topic/deliveries", null, records, consumer);
+    }
+
+    @KafkaListener(topics = "route-events", groupId = "supply-chain-group",
+                   containerFactory = "batchKafkaListenerContainerFactory",
+                   concurrency = "${kafka.consumer.concurrency.route-events:1}")
+    public void consumeRouteEvents(List<ConsumerRecord<String, String>> records, Consumer<?, ?> consumer) {
+        dispatch("/topic/routes", "/topic/routes/", records, consumer);
+    }
+
+    @KafkaListener(topics = "cargo-events", groupId = "supply-chain-group",
+                   containerFactory = "batchKafkaListenerContainerFactory",
+                   concurrency = "${kafka.consumer.concurrency.cargo-events:1}")
+    public void consumeCargoEvents(List<ConsumerRecord<String, String>> records, Consumer<?, ?> consumer) {
+        dispatch("/topic/cargo", null, records, consumer);
+    }
+
+    @KafkaListener(topics = "vendor-events", groupId = "supply-chain-group",
+                   containerFactory = "batchKafkaListenerContainerFactory",
+                   concurrency = "${kafka.consumer.concurrency.vendor-events:1}")
+    public void consumeVendorEvents(List<ConsumerRecord<String, String>> records, Consumer<?, ?> consumer) {
+        dispatch("/topic/vendors", null, records, consumer);
+    }
+
+    private void dispatch(String destination, String entityPrefix, List<ConsumerRecord<String, String>> records, Consumer<?, ?> consumer) {
+        if (records.isEmpty()) {
+            return;
+        }
+        if (webSocketFanout.isCoalescing()) {
+            List<DomainEvent> events = new ArrayList<>(records.size());
+            List<ConsumerRecord<String, String>> unparsed = new ArrayList<>();
+            for (ConsumerRecord<String, String> record : records) {
+                DomainEvent event = parse(record.value());
+                if (event != null && event.getEntityId() != null) {
+                    events.add(event);
+                } else {
+                    unparsed.add(record);
+                }
+            }
+            if (!events.isEmpty()) {
+                webSocketFanout.submit(destination, entityPrefix, events);
+            }
+            // Records that are not typed events cannot be merged and go out as they are
+            if (!unparsed.isEmpty()) {
+                forward(destination, unparsed);
+            }
+        } else {
+            forward(destination, records);
+            if (entityPrefix != null) {
+                forwardPerEntity(entityPrefix, records);
+            }
+        }
+        recordLag(records, consumer);
+    }
+
+    private void forward(String destination, List<ConsumerRecord<String, String>> records) {
+        // Payloads are already JSON documents, so the frame is built without re-parsing them
+        StringJoiner frame = new StringJoiner(",", "[", "]");
+        for (ConsumerRecord<String, String> record : records) {
+            frame.add(record.value());
+        }
+        try {
+            messagingTemplate.convertAndSend(destination, frame.toString());
+        } catch (MessagingException e) {
+            forwardIndividually(destination, records, e);
+        }
+        log.debug("Forwarded {} events to {}", records.size(), destination);
     }
 
-    @KafkaListener(topics = "shipment-events", groupId = "supply-chain-group")
-    public void consumeShipmentEvents(String message) {
-        System.out.println("Consumed shipment event: " + message);
-        // Send the message to WebSocket clients subscribed to /topic/shipments
-        messagingTemplate.convertAndSend("/topic/shipments", message);
+    /**
+     * One frame per entity per batch on {prefix}{entityId}. The event attributes (status, vendorId, routeId) of the
+     * entity's latest event are copied into STOMP headers, so clients can subscribe to a single entity, or to
+     * {prefix}* with a selector such as "headers.status == 'In Transit'", and the broker drops everything else
+     * before it is written to the socket. Best-effort: the aggregate destination has already received the batch.
+     */
+    private void forwardPerEntity(String prefix, List<ConsumerRecord<String, String>> records) {
+        Map<String, StringJoiner> frames = new LinkedHashMap<>();
+        Map<String, Map<String, Object>> attributes = new HashMap<>();
+        for (ConsumerRecord<String, String> record : records) {
+            if (record.key() == null) {
+                continue;
+            }
+            DomainEvent event = parse(record.value());
+            // Batch summaries are keyed by event id, not an entity, and only go to the aggregate destination
+            if (event != null && event.getEntityId() == null) {
+                continue;
+            }
+            frames.computeIfAbsent(record.key(), key -> new StringJoiner(",", "[", "]")).add(record.value());
+            attributes.put(record.key(), event != null ? event.getAttributes() : null);
+        }
+        frames.forEach((entityId, frame) -> {
+            try {
+                messagingTemplate.convertAndSend(prefix + entityId, frame.toString(), webSocketFanout.headersFor(attributes.get(entityId)));
+            } catch (MessagingException e) {
+                log.warn("Failed to forward events to {}{}: {}", prefix, entityId, e.getMessage());
+            }
+        });
     }
 
-    @KafkaListener(topics = "delivery-events", groupId = "supply-chain-group")
-    public void consumeDeliveryEvents(String message) {
-        System.out.println("Consumed delivery event: " + message);
-        messagingTemplate.convertAndSend("/topic/deliveries", message);
+    // Isolates the record the broker rejects so the error handler retries and dead-letters just that one
+    private void forwardIndividually(String destination, List<ConsumerRecord<String, String>> records, MessagingException batchError) {
+        log.warn("Batch frame to {} failed ({}), retrying per record", destination, batchError.getMessage());
+        for (int i = 0; i < records.size(); i++) {
+            try {
+                messagingTemplate.convertAndSend(destination, "[" + records.get(i).value() + "]");
+            } catch (MessagingException e) {
+                throw new BatchListenerFailedException("Failed to forward event to " + destination, e, i);
+            }
+        }
     }
 
-    @KafkaListener(topics = "route-events", groupId = "supply-chain-group")
-    public void consumeRouteEvents(String message) {
-        System.out.println("Consumed route event: " + message);
-        messagingTemplate.convertAndSend("/topic/routes", message);
+    private DomainEvent parse(String payload) {
+        try {
+            return objectMapper.readValue(payload, DomainEvent.class);
+        } catch (Exception e) {
+            return null;
+        }
     }
 
-    @KafkaListener(topics = "cargo-events", groupId = "supply-chain-group")
-    public void consumeCargoEvents(String message) {
-        System.out.println("Consumed cargo event: " + message);
-        messagingTemplate.convertAndSend("/topic/cargo", message);
+    private void recordLag(List<ConsumerRecord<String, String>> records, Consumer<?, ?> consumer) {
+        Set<TopicPartition> partitions = new HashSet<>();
+        for (ConsumerRecord<String, String> record : records) {
+            partitions.add(new TopicPartition(record.topic(), record.partition()));
+        }
+        for (TopicPartition partition : partitions) {
+            OptionalLong lag = consumer.currentLag(partition);
+            if (lag.isPresent()) {
+                lagGauge(partition).set(lag.getAsLong());
+            }
+        }
     }
 
-    @KafkaListener(topics = "vendor-events", groupId = "supply-chain-group")
-    public void consumeVendorEvents(String message) {
-        System.out.println("Consumed vendor event: " + message);
-        messagingTemplate.convertAndSend("/topic/vendors", message);
+    private AtomicLong lagGauge(TopicPartition partition) {
+        return lagByPartition.computeIfAbsent(partition, tp -> {
+            AtomicLong value = new AtomicLong();
+            Gauge.builder("kafka.consumer.lag", value, AtomicLong::get)
+                .description("Records remaining in the partition after the last consumed batch")
+                .tag("topic", tp.topic())
+                .tag("partition", String.valueOf(tp.partition()))
+                .register(meterRegistry);
+            return value;
+        });
     }
 }
@@ -0,0 +1,201 @@
+package com.cargomanagement.service;
+
+import com.cargomanagement.dto.DeadLetterRecord;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reads and replays the per-topic dead-letter topics (<topic>.DLT) filled by the listener error handler.
+ * Progress is tracked as committed offsets of a dedicated consumer group, so inspecting shows only records
+ * that have not been replayed yet and a replay never re-sends the same record.
+ */
+@Service
+public class KafkaDeadLetterService {
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaDeadLetterService.class);
+
+    public static final String DLT_SUFFIX = ".DLT";
+    public static final List<String> SOURCE_TOPICS =
+        List.of("shipment-events", "cargo-events", "route-events", "vendor-events", "delivery-events");
+
+    private static final String REPLAY_GROUP = "supply-chain-dlt-replay";
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+    private static final Duration METADATA_TIMEOUT = Duration.ofSeconds(5);
+    private static final long REPLAY_ACK_TIMEOUT_MS = 30000;
+
+    private final ConsumerFactory<Object, Object> consumerFactory;
+    private final KafkaProducerService kafkaProducerService;
+    private final ReentrantLock replayLock = new ReentrantLock();
+
+    public KafkaDeadLetterService(ConsumerFactory<Object, Object> consumerFactory,
+                                  KafkaProducerService kafkaProducerService) {
+        this.consumerFactory = consumerFactory;
+        this.kafkaProducerService = kafkaProducerService;
+    }
+
+    public List<DeadLetterRecord> inspect(String sourceTopic, int limit) {
+        String dlt = deadLetterTopic(sourceTopic);
+        try (Consumer<Object, Object> consumer = createConsumer(limit)) {
+            List<DeadLetterRecord> result = new ArrayList<>();
+            for (ConsumerRecord<Object, Object> record : readPending(consumer, dlt, limit)) {
+                result.add(toDeadLetterRecord(record));
+            }
+            return result;
+        }
+    }
+
+    // Re-publishes up to limit pending records to their source topic and returns how many were acknowledged
+    public int replay(String sourceTopic, int limit) {
+        replayLock.lock();
+        try {
+            String dlt = deadLetterTopic(sourceTopic);
+            try (Consumer<Object, Object> consumer = createConsumer(limit)) {
+                List<ConsumerRecord<Object, Object>> records = readPending(consumer, dlt, limit);
+                List<CompletableFuture<?>> futures = new ArrayList<>(records.size());
+                for (ConsumerRecord<Object, Object> record : records) {
+                    futures.add(kafkaProducerService.sendMessage(sourceTopic, asString(record.key()), asString(record.value())));
+                }
+
+                // Commit per partition only up to the first record that was not acknowledged
+                Map<TopicPartition, OffsetAndMetadata> commit = new HashMap<>();
+                Set<TopicPartition> failed = new HashSet<>();
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(REPLAY_ACK_TIMEOUT_MS);
+                int replayed = 0;
+                for (int i = 0; i < records.size(); i++) {
+                    ConsumerRecord<Object, Object> record = records.get(i);
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    if (failed.contains(partition)) {
+                        continue;
+                    }
+                    try {
+                        futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                        commit.put(partition, new OffsetAndMetadata(record.offset() + 1));
+                        replayed++;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        failed.add(partition);
+                    } catch (Exception e) {
+                        log.warn("Replay of {}-{}@{} failed: {}", record.topic(), record.partition(), record.offset(), e.getMessage());
+                        failed.add(partition);
+                    }
+                }
+                if (!commit.isEmpty()) {
+                    consumer.commitSync(commit);
+                }
+                log.info("Replayed {} of {} dead-lettered records from {}", replayed, records.size(), dlt);
+                return replayed;
+            }
+        } finally {
+            replayLock.unlock();
+        }
+    }
+
+    private String deadLetterTopic(String sourceTopic) {
+        if (!SOURCE_TOPICS.contains(sourceTopic)) {
+            throw new IllegalArgumentException("Unknown topic: " + sourceTopic + " (expected one of " + SOURCE_TOPICS + ")");
+        }
+        return sourceTopic + DLT_SUFFIX;
+    }
+
+    private Consumer<Object, Object> createConsumer(int limit) {
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(limit));
+        return consumerFactory.createConsumer(REPLAY_GROUP, null, "-dlt", overrides);
+    }
+
+    // Positions every partition at the replay group's committed offset (or the beginning) and reads forward
+    private List<ConsumerRecord<Object, Object>> readPending(Consumer<Object, Object> consumer, String dlt, int limit) {
+        List<PartitionInfo> infos = consumer.partitionsFor(dlt, METADATA_TIMEOUT);
+        if (infos == null || infos.isEmpty()) {
+            return List.of();
+        }
+        List<TopicPartition> partitions = new ArrayList<>();
+        for (PartitionInfo info : infos) {
+            partitions.add(new TopicPartition(info.topic(), info.partition()));
+        }
+        consumer.assign(partitions);
+        Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(new HashSet<>(partitions), METADATA_TIMEOUT);
+        for (TopicPartition partition : partitions) {
+            OffsetAndMetadata offset = committed.get(partition);
+            if (offset != null) {
+                consumer.seek(partition, offset.offset());
+            } else {
+                consumer.seekToBeginning(List.of(partition));
+            }
+        }
+
+        List<ConsumerRecord<Object, Object>> records = new ArrayList<>();
+        int emptyPolls = 0;
+        while (records.size() < limit && emptyPolls < 2) {
+            var batch = consumer.poll(POLL_TIMEOUT);
+            if (batch.isEmpty()) {
+                emptyPolls++;
+                continue;
+            }
+            for (ConsumerRecord<Object, Object> record : batch) {
+                if (records.size() == limit) {
+                    break;
+                }
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    private DeadLetterRecord toDeadLetterRecord(ConsumerRecord<Object, Object> record) {
+        DeadLetterRecord dto = new DeadLetterRecord();
+        dto.setTopic(record.topic());
+        dto.setPartition(record.partition());
+        dto.setOffset(record.offset());
+        dto.setKey(asString(record.key()));
+        dto.setValue(asString(record.value()));
+        dto.setTimestamp(record.timestamp());
+        dto.setOriginalTopic(headerString(record, KafkaHeaders.DLT_ORIGINAL_TOPIC));
+        byte[] partition = headerBytes(record, KafkaHeaders.DLT_ORIGINAL_PARTITION);
+        dto.setOriginalPartition(partition != null && partition.length == Integer.BYTES ? ByteBuffer.wrap(partition).getInt() : null);
+        byte[] offset = headerBytes(record, KafkaHeaders.DLT_ORIGINAL_OFFSET);
+        dto.setOriginalOffset(offset != null && offset.length == Long.BYTES ? ByteBuffer.wrap(offset).getLong() : null);
+        dto.setExceptionClass(headerString(record, KafkaHeaders.DLT_EXCEPTION_FQCN));
+        dto.setExceptionMessage(headerString(record, KafkaHeaders.DLT_EXCEPTION_MESSAGE));
+        return dto;
+    }
+
+    private byte[] headerBytes(ConsumerRecord<?, ?> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header != null ? header.value() : null;
+    }
+
+    private String headerString(ConsumerRecord<?, ?> record, String name) {
+        byte[] value = headerBytes(record, name);
+        return value != null ? new String(value, StandardCharsets.UTF_8) : null;
+    }
+
+    private String asString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+}
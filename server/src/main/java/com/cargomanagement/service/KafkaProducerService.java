@@ -1,27 +1,134 @@
 package com.cargomanagement.service;
 
+import com.cargomanagement.dto.DomainEvent;
+import com.cargomanagement.models.OutboxEvent;
+import com.cargomanagement.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.producer.BufferExhaustedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class KafkaProducerService {
 
+    private static final Logger log = LoggerFactory.getLogger(KafkaProducerService.class);
+
     private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final OutboxEventRepository outboxEventRepository;
+    private final MeterRegistry meterRegistry;
+    private final Counter bufferExhaustedCounter;
 
     @Autowired
-    public KafkaProducerService(KafkaTemplate<String, String> kafkaTemplate) {
+    public KafkaProducerService(KafkaTemplate<String, String> kafkaTemplate,
+                                ObjectMapper objectMapper,
+                                OutboxEventRepository outboxEventRepository,
+                                MeterRegistry meterRegistry) {
         this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.outboxEventRepository = outboxEventRepository;
+        this.meterRegistry = meterRegistry;
+        this.bufferExhaustedCounter = meterRegistry.counter("kafka.producer.buffer.exhausted");
+    }
+
+    /**
+     * Writes the event to the outbox in the caller's transaction, so it is committed (or rolled back)
+     * together with the entity change. {@link OutboxRelay} sends it to Kafka after commit.
+     * Keyed by entity id so every event for one entity lands on the same partition, in order.
+     */
+    @Transactional
+    public void publish(String topic, DomainEvent event) {
+        outboxEventRepository.save(toOutboxRow(topic, event));
     }
 
-    public void sendMessage(String topic, String message) {
+    /**
+     * Outbox rows for several entities written in one go (a bulk-insert chunk). Each event keeps its own entity key,
+     * so a later update of any of the entities follows its create on the same partition; the relay picks the rows
+     * up together and sends them in one producer batch.
+     */
+    @Transactional
+    public void publishAll(String topic, List<DomainEvent> events) {
+        List<OutboxEvent> rows = new ArrayList<>(events.size());
+        for (DomainEvent event : events) {
+            rows.add(toOutboxRow(topic, event));
+        }
+        outboxEventRepository.saveAll(rows);
+    }
+
+    private OutboxEvent toOutboxRow(String topic, DomainEvent event) {
+        OutboxEvent row = new OutboxEvent();
+        row.setTopic(topic);
+        row.setEventKey(event.getEntityId() != null ? String.valueOf(event.getEntityId()) : event.getEventId());
+        row.setPayload(toJson(event));
+        row.setCreatedAt(LocalDateTime.now());
+        row.setAvailableAt(row.getCreatedAt());
+        return row;
+    }
+
+    /**
+     * Direct asynchronous send used by the outbox relay. Latency and outcome are recorded per topic in
+     * kafka.producer.send (tags topic, outcome) and failures in kafka.producer.send.errors (tags topic, exception).
+     * A send that cannot even be buffered returns an already-failed future rather than throwing.
+     */
+    public CompletableFuture<SendResult<String, String>> sendMessage(String topic, String key, String message) {
+        long start = System.nanoTime();
+        CompletableFuture<SendResult<String, String>> future;
         try {
-            System.out.printf("Producing message -> %s to topic -> %s%n", message, topic);
-            this.kafkaTemplate.send(topic, message);
-            System.out.println("Message sent successfully");
+            future = kafkaTemplate.send(topic, key, message);
         } catch (Exception e) {
-            System.err.println("Failed to send Kafka message: " + e.getMessage());
-            // Doesn't throw the exception - just logs it
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((result, error) -> recordSend(topic, start, error));
+    }
+
+    private void recordSend(String topic, long start, Throwable error) {
+        Timer.builder("kafka.producer.send")
+            .description("Time from send() to broker acknowledgement")
+            .tag("topic", topic)
+            .tag("outcome", error == null ? "success" : "failure")
+            .register(meterRegistry)
+            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (error == null) {
+            return;
+        }
+
+        Throwable cause = rootCause(error);
+        meterRegistry.counter("kafka.producer.send.errors",
+            "topic", topic, "exception", cause.getClass().getSimpleName()).increment();
+        if (cause instanceof BufferExhaustedException) {
+            bufferExhaustedCounter.increment();
+        }
+        log.warn("Kafka send to {} failed: {}", topic, cause.getMessage());
+    }
+
+    private Throwable rootCause(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private String toJson(DomainEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize Kafka event " + event.getEventType(), e);
         }
     }
 }
@@ -0,0 +1,437 @@
+package com.cargomanagement.service;
+
+import com.cargomanagement.dto.BulkItemResult;
+import com.cargomanagement.dto.CargoCreateRequest;
+import com.cargomanagement.models.ActivityLog;
+import com.cargomanagement.models.Cargo;
+import com.cargomanagement.models.ImportJob;
+import com.cargomanagement.models.Shipment;
+import com.cargomanagement.repository.ImportJobRepository;
+import com.cargomanagement.util.CsvReader;
+import com.cargomanagement.util.MalformedRecordException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Streaming manifest import (CSV or NDJSON) into cargo or shipments.
+ * The upload is parsed record by record and handed to {@link BulkCreateService} one bulk.chunk-size slice at a time,
+ * so heap use depends on the chunk size, not the file size. Each slice is validated with the entity constraints
+ * and written in one transaction together with the job's progress row. A slice the database rolls back stops the
+ * run as INTERRUPTED with the progress row still at the start of that slice; an interrupted upload is resumed by
+ * sending the same file again with the job id, and the records already accounted for are skipped.
+ *
+ * CSV needs a header row naming the fields (type, weight, value, ... for cargo; origin, destination, status, ...
+ * for shipments). Shipments may reference their route and vendor with routeId / vendorId columns or keys.
+ */
+@Service
+public class ManifestImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ManifestImportService.class);
+
+    public static final String CSV = "CSV";
+    public static final String NDJSON = "NDJSON";
+
+    private final BulkCreateService bulkCreateService;
+    private final ImportJobRepository importJobRepository;
+    private final NotificationService notificationService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxRecordLength;
+    private final int maxReportedErrors;
+    private final long staleAfterMs;
+
+    public ManifestImportService(BulkCreateService bulkCreateService,
+                                 ImportJobRepository importJobRepository,
+                                 NotificationService notificationService,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${import.max-record-length:65536}") int maxRecordLength,
+                                 @Value("${import.max-reported-errors:100}") int maxReportedErrors,
+                                 @Value("${import.stale-after-ms:300000}") long staleAfterMs) {
+        this.bulkCreateService = bulkCreateService;
+        this.importJobRepository = importJobRepository;
+        this.notificationService = notificationService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxRecordLength = maxRecordLength;
+        this.maxReportedErrors = maxReportedErrors;
+        this.staleAfterMs = staleAfterMs;
+    }
+
+    public ImportJob getJob(String jobId) {
+        return importJobRepository.findById(jobId).orElse(null);
+    }
+
+    /**
+     * Imports the stream on the calling thread and returns the final job state. Unparseable records are counted as
+     * rejected and skipped. A job ends INVALID when the stream as a whole is unusable (e.g. no CSV header) and
+     * INTERRUPTED on a dropped connection or database outage; either keeps its progress and can be resumed.
+     *
+     * @param entityType  ActivityLog.CARGO or ActivityLog.SHIPMENT
+     * @param resumeJobId id of an earlier job for the same file, or null to start a new one
+     */
+    public ImportJob importStream(String entityType, String format, String fileName, String resumeJobId, InputStream body) {
+        String runToken = UUID.randomUUID().toString();
+        ImportJob job = resumeJobId != null
+            ? claim(resumeJobId, entityType, format, runToken)
+            : create(entityType, format, fileName, runToken);
+        log.info("Import {} {} {} started at record {}", job.getJobId(), format, entityType, job.getRecordsRead());
+
+        try (Reader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 64 * 1024)) {
+            RecordSource source = CSV.equals(format) ? new CsvSource(reader) : new NdjsonSource(reader);
+            if (ActivityLog.CARGO.equals(entityType)) {
+                run(job, source, CargoCreateRequest.class, runToken);
+            } else {
+                run(job, source, Shipment.class, runToken);
+            }
+            ImportJob finished = finish(job.getJobId(), runToken, ImportJob.COMPLETED, null);
+            notificationService.notifyImportCompleted(finished);
+            log.info("Import {} completed: {} read, {} created, {} rejected", finished.getJobId(),
+                     finished.getRecordsRead(), finished.getCreated(), finished.getRejected());
+            return finished;
+        } catch (InvalidManifestException e) {
+            log.info("Import {} rejected: {}", job.getJobId(), e.getMessage());
+            return finish(job.getJobId(), runToken, ImportJob.INVALID, e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Import {} interrupted: {}", job.getJobId(), e.getMessage(), e);
+            return finish(job.getJobId(), runToken, ImportJob.INTERRUPTED, e.getMessage());
+        }
+    }
+
+    private <T> void run(ImportJob job, RecordSource source, Class<T> type, String runToken) throws IOException {
+        int chunkSize = bulkCreateService.getChunkSize();
+        long recordNumber = 0;
+
+        // Resume: the records of the earlier run are read and dropped without being converted
+        while (recordNumber < job.getRecordsRead()) {
+            try {
+                if (source.next() == null) {
+                    return;
+                }
+            } catch (MalformedRecordException e) {
+                // Already counted as rejected by the earlier run
+            }
+            recordNumber++;
+        }
+
+        List<T> chunk = new ArrayList<>(chunkSize);
+        List<Long> chunkRecordNumbers = new ArrayList<>(chunkSize);
+        List<String> problems = new ArrayList<>();
+        int parseRejected = 0;
+        long consumed = recordNumber;
+        while (true) {
+            JsonNode record;
+            String problem = null;
+            try {
+                record = source.next();
+                if (record == null) {
+                    break;
+                }
+            } catch (MalformedRecordException e) {
+                record = null;
+                problem = e.getMessage();
+            }
+            consumed++;
+            if (record != null) {
+                try {
+                    chunk.add(objectMapper.treeToValue(normalize(record, type), type));
+                    chunkRecordNumbers.add(consumed);
+                } catch (JsonProcessingException e) {
+                    problem = e.getOriginalMessage();
+                } catch (IllegalArgumentException e) {
+                    problem = e.getMessage();
+                }
+            }
+            if (problem != null) {
+                parseRejected++;
+                problems.add("record " + consumed + ": " + problem);
+            }
+            if (chunk.size() + parseRejected >= chunkSize) {
+                writeChunk(job.getJobId(), runToken, type, chunk, chunkRecordNumbers, problems, parseRejected, consumed);
+                chunk.clear();
+                chunkRecordNumbers.clear();
+                problems.clear();
+                parseRejected = 0;
+            }
+        }
+        if (chunk.size() + parseRejected > 0) {
+            writeChunk(job.getJobId(), runToken, type, chunk, chunkRecordNumbers, problems, parseRejected, consumed);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void writeChunk(String jobId, String runToken, Class<T> type, List<T> records, List<Long> recordNumbers,
+                                List<String> problems, int parseRejected, long consumed) {
+        BulkCreateService.Prepared<?> prepared;
+        Runnable progress;
+        if (type == CargoCreateRequest.class) {
+            BulkCreateService.Prepared<Cargo> cargo =
+                bulkCreateService.prepareCargo((List<CargoCreateRequest>) records, 0);
+            progress = progressUpdate(jobId, runToken, cargo, recordNumbers, problems, parseRejected, consumed);
+            bulkCreateService.writeCargo(cargo, progress);
+            prepared = cargo;
+        } else {
+            BulkCreateService.Prepared<Shipment> shipments =
+                bulkCreateService.prepareShipments((List<Shipment>) records, 0);
+            progress = progressUpdate(jobId, runToken, shipments, recordNumbers, problems, parseRejected, consumed);
+            bulkCreateService.writeShipments(shipments, progress);
+            prepared = shipments;
+        }
+        // The chunk was rolled back along with its progress update. Its records were never written, so the job
+        // must not move past them: stop here, leaving recordsRead at the start of the chunk for a resume to retry
+        if (prepared.getResult().getFailed() > 0) {
+            throw new IllegalStateException("Records " + (consumed - records.size() - parseRejected + 1) + "-"
+                    + consumed + " were not written: " + rollbackCause(prepared));
+        }
+        // Every record was rejected at parse or validation time, so nothing was written: record that on its own
+        if (prepared.getValidCount() == 0) {
+            transactionTemplate.executeWithoutResult(status -> progress.run());
+        }
+    }
+
+    private static String rollbackCause(BulkCreateService.Prepared<?> prepared) {
+        return prepared.getResult().getItems().stream()
+            .filter(item -> BulkItemResult.FAILED.equals(item.getStatus()) && item.getErrors() != null)
+            .map(item -> String.join("; ", item.getErrors()))
+            .findFirst().orElse("chunk rolled back");
+    }
+
+    // Progress for one chunk, computed from the prepared report; runs inside the chunk's transaction, so it only
+    // lands when the chunk commits
+    private Runnable progressUpdate(String jobId, String runToken, BulkCreateService.Prepared<?> prepared,
+                                    List<Long> recordNumbers, List<String> parseProblems, int parseRejected, long consumed) {
+        return () -> {
+            ImportJob job = importJobRepository.lockById(jobId)
+                .orElseThrow(() -> new IllegalStateException("Import job " + jobId + " no longer exists"));
+            if (!runToken.equals(job.getRunToken())) {
+                throw new IllegalStateException("Import job " + jobId + " was taken over by another upload");
+            }
+            List<String> problems = new ArrayList<>(parseProblems);
+            for (BulkItemResult item : prepared.getResult().getItems()) {
+                if (item.getErrors() != null && !BulkItemResult.CREATED.equals(item.getStatus())) {
+                    problems.add("record " + recordNumbers.get((int) item.getIndex()) + ": " + String.join("; ", item.getErrors()));
+                }
+            }
+            job.setRecordsRead(consumed);
+            job.setCreated(job.getCreated() + prepared.getValidCount());
+            job.setRejected(job.getRejected() + prepared.getResult().getRejected() + parseRejected);
+            job.setErrorSample(appendProblems(job.getErrorSample(), problems));
+            job.setUpdatedAt(LocalDateTime.now());
+            importJobRepository.save(job);
+        };
+    }
+
+    private String appendProblems(String sample, List<String> problems) {
+        StringBuilder result = new StringBuilder(sample != null ? sample : "");
+        long reported = sample == null || sample.isEmpty() ? 0 : sample.chars().filter(c -> c == '\n').count() + 1;
+        for (String problem : problems) {
+            if (reported++ >= maxReportedErrors) {
+                break;
+            }
+            if (result.length() > 0) {
+                result.append('\n');
+            }
+            result.append(problem.length() > 500 ? problem.substring(0, 500) : problem);
+        }
+        return result.length() > 0 ? result.toString() : null;
+    }
+
+    private ImportJob create(String entityType, String format, String fileName, String runToken) {
+        ImportJob job = new ImportJob();
+        job.setJobId(UUID.randomUUID().toString());
+        job.setEntityType(entityType);
+        job.setFormat(format);
+        job.setFileName(fileName);
+        job.setStatus(ImportJob.RUNNING);
+        job.setRunToken(runToken);
+        job.setStartedAt(LocalDateTime.now());
+        job.setUpdatedAt(job.getStartedAt());
+        return transactionTemplate.execute(status -> importJobRepository.save(job));
+    }
+
+    // A RUNNING job can only be taken over once it has stopped making progress (its upload died with the node)
+    private ImportJob claim(String jobId, String entityType, String format, String runToken) {
+        return transactionTemplate.execute(status -> {
+            ImportJob job = importJobRepository.lockById(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("Import job not found: " + jobId));
+            if (!job.getEntityType().equals(entityType) || !job.getFormat().equals(format)) {
+                throw new IllegalArgumentException("Import job " + jobId + " is a " + job.getFormat() + " "
+                        + job.getEntityType() + " import");
+            }
+            if (ImportJob.COMPLETED.equals(job.getStatus())) {
+                throw new IllegalArgumentException("Import job " + jobId + " has already completed");
+            }
+            if (ImportJob.RUNNING.equals(job.getStatus())
+                    && job.getUpdatedAt().isAfter(LocalDateTime.now().minus(Duration.ofMillis(staleAfterMs)))) {
+                throw new IllegalStateException("Import job " + jobId + " is still running");
+            }
+            job.setStatus(ImportJob.RUNNING);
+            job.setRunToken(runToken);
+            job.setLastError(null);
+            job.setFinishedAt(null);
+            job.setUpdatedAt(LocalDateTime.now());
+            return importJobRepository.save(job);
+        });
+    }
+
+    private ImportJob finish(String jobId, String runToken, String finalStatus, String error) {
+        return transactionTemplate.execute(status -> {
+            ImportJob job = importJobRepository.lockById(jobId).orElseThrow();
+            // A run that lost its job to a resumed upload leaves the new owner's state alone
+            if (!runToken.equals(job.getRunToken())) {
+                return job;
+            }
+            job.setStatus(finalStatus);
+            job.setRunToken(null);
+            job.setLastError(error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+            job.setUpdatedAt(LocalDateTime.now());
+            job.setFinishedAt(ImportJob.COMPLETED.equals(finalStatus) ? job.getUpdatedAt() : null);
+            return importJobRepository.save(job);
+        });
+    }
+
+    // Flat routeId / vendorId (CSV columns or NDJSON keys) become the association objects the Shipment entity binds
+    private JsonNode normalize(JsonNode record, Class<?> type) {
+        if (type != Shipment.class || !(record instanceof ObjectNode)) {
+            return record;
+        }
+        ObjectNode node = (ObjectNode) record;
+        JsonNode routeId = node.remove("routeId");
+        if (routeId != null && !routeId.isNull()) {
+            node.putObject("assignedRoute").set("routeId", routeId);
+        }
+        JsonNode vendorId = node.remove("vendorId");
+        if (vendorId != null && !vendorId.isNull()) {
+            node.putObject("assignedVendor").set("vendorId", vendorId);
+        }
+        return node;
+    }
+
+    // String.trim() keeps U+FEFF, so a byte order mark that reaches a header cell or the first line must go explicitly
+    private static String stripByteOrderMark(String text) {
+        return text.startsWith("\uFEFF") ? text.substring(1) : text;
+    }
+
+    // One parsed record at a time; null at end of stream. A record that cannot be parsed is still consumed.
+    private interface RecordSource {
+        JsonNode next() throws IOException, MalformedRecordException;
+    }
+
+    // The stream as a whole cannot be imported; resending the same file fails the same way
+    private static final class InvalidManifestException extends IllegalArgumentException {
+        private static final long serialVersionUID = 1L;
+
+        InvalidManifestException(String message) {
+            super(message);
+        }
+    }
+
+    private final class CsvSource implements RecordSource {
+        private final CsvReader reader;
+        private final List<String> header;
+
+        CsvSource(Reader reader) throws IOException {
+            this.reader = new CsvReader(reader, maxRecordLength);
+            List<String> names;
+            try {
+                names = this.reader.readRecord();
+            } catch (MalformedRecordException e) {
+                throw new InvalidManifestException("CSV header row is malformed: " + e.getMessage());
+            }
+            if (names == null || names.stream().allMatch(String::isBlank)) {
+                throw new InvalidManifestException("CSV import needs a header row");
+            }
+            this.header = new ArrayList<>(names.size());
+            for (String name : names) {
+                header.add(header.isEmpty() ? stripByteOrderMark(name).trim() : name.trim());
+            }
+        }
+
+        @Override
+        public JsonNode next() throws IOException, MalformedRecordException {
+            List<String> fields = reader.readRecord();
+            if (fields == null) {
+                return null;
+            }
+            ObjectNode node = objectMapper.createObjectNode();
+            for (int i = 0; i < header.size() && i < fields.size(); i++) {
+                String name = header.get(i);
+                String value = fields.get(i).trim();
+                if (!name.isEmpty() && !value.isEmpty()) {
+                    node.put(name, value);  // Jackson coerces the text to numbers and dates on conversion
+                }
+            }
+            return node;
+        }
+    }
+
+    private final class NdjsonSource implements RecordSource {
+        private final Reader reader;
+        private final StringBuilder line = new StringBuilder();
+        private boolean first = true;
+
+        NdjsonSource(Reader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public JsonNode next() throws IOException, MalformedRecordException {
+            while (readLine()) {
+                String text = (first ? stripByteOrderMark(line.toString()) : line.toString()).trim();
+                first = false;
+                if (text.isEmpty()) {
+                    continue;
+                }
+                try {
+                    return objectMapper.readTree(text);
+                } catch (JsonProcessingException e) {
+                    throw new MalformedRecordException("Malformed JSON: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        }
+
+        // Bounded readLine: a file without line breaks cannot pull an unbounded line into memory
+        private boolean readLine() throws IOException, MalformedRecordException {
+            line.setLength(0);
+            int c;
+            boolean any = false;
+            while ((c = reader.read()) != -1) {
+                any = true;
+                if (c == '\n') {
+                    return true;
+                }
+                if (line.length() >= maxRecordLength) {
+                    while ((c = reader.read()) != -1 && c != '\n') {
+                        // Skip the rest of the line
+                    }
+                    line.setLength(0);
+                    throw new MalformedRecordException("NDJSON line exceeds " + maxRecordLength
+                            + " characters, skipped to the next line");
+                }
+                line.append((char) c);
+            }
+            return any;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.cargomanagement.service;
+
+import com.cargomanagement.dto.EmailMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Coalesces notification events into one digest email per recipient list per window.
+ * Within a window events are grouped by shipment and merged per entity, keeping only the latest summary,
+ * so SMTP traffic is bounded by the window length rather than the write rate.
+ * Opt-in with notification.digest.enabled: a digest is a plain-text summary that replaces the per-event emails of
+ * every digested type, including the HTML shipment emails rendered from templates/email.
+ */
+@Service
+public class NotificationDigester {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationDigester.class);
+    private static final String UNASSIGNED = "Not linked to a shipment";
+
+    private final EmailDispatcher emailDispatcher;
+    private final boolean enabled;
+    private final Set<NotificationType> immediateTypes;
+    private final int maxEntriesPerWindow;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Guarded by lock: recipients -> shipment group -> entity -> merged entry
+    private Map<List<String>, Map<String, Map<String, DigestEntry>>> pending = new HashMap<>();
+    private int pendingEntries;
+    private int droppedEvents;
+
+    public NotificationDigester(EmailDispatcher emailDispatcher,
+                                @Value("${notification.digest.enabled:false}") boolean enabled,
+                                @Value("${notification.digest.immediate-types:SHIPMENT_DELETED}") String immediateTypes,
+                                @Value("${notification.digest.max-entries:10000}") int maxEntriesPerWindow) {
+        this.emailDispatcher = emailDispatcher;
+        this.enabled = enabled;
+        this.immediateTypes = parseTypes(immediateTypes);
+        this.maxEntriesPerWindow = maxEntriesPerWindow;
+    }
+
+    public boolean isDigested(NotificationType type) {
+        return enabled && !immediateTypes.contains(type);
+    }
+
+    public void add(List<String> recipients, NotificationType type, Long shipmentId,
+                    String entityKey, String summary) {
+        if (recipients.isEmpty()) {
+            return;
+        }
+        String group = shipmentId != null ? "Shipment SH" + String.format("%03d", shipmentId) : UNASSIGNED;
+        lock.lock();
+        try {
+            Map<String, DigestEntry> entities = pending
+                .computeIfAbsent(recipients, key -> new LinkedHashMap<>())
+                .computeIfAbsent(group, key -> new LinkedHashMap<>());
+
+            DigestEntry entry = entities.get(entityKey);
+            if (entry == null) {
+                if (pendingEntries >= maxEntriesPerWindow) {
+                    droppedEvents++;
+                    return;
+                }
+                entry = new DigestEntry();
+                entities.put(entityKey, entry);
+                pendingEntries++;
+            }
+            entry.merge(type, summary);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.digest.window-ms:60000}",
+               initialDelayString = "${notification.digest.window-ms:60000}")
+    public void flush() {
+        Map<List<String>, Map<String, Map<String, DigestEntry>>> window;
+        int entries;
+        int dropped;
+        lock.lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            window = pending;
+            entries = pendingEntries;
+            dropped = droppedEvents;
+            pending = new HashMap<>();
+            pendingEntries = 0;
+            droppedEvents = 0;
+        } finally {
+            lock.unlock();
+        }
+
+        window.forEach((recipients, groups) -> {
+            EmailMessage message = new EmailMessage();
+            message.setRecipients(recipients);
+            message.setSubject("Cargo Flow Digest - " + entries + " updated record(s) across " + groups.size() + " group(s)");
+            message.setBody(buildDigestBody(groups, dropped));
+            message.setHtml(false);
+            emailDispatcher.dispatch(message);
+        });
+        log.debug("Flushed notification digest with {} entries ({} dropped)", entries, dropped);
+    }
+
+    private String buildDigestBody(Map<String, Map<String, DigestEntry>> groups, int dropped) {
+        StringBuilder body = new StringBuilder("Summary of changes since the last digest.\n");
+        groups.forEach((group, entities) -> {
+            body.append('\n').append(group).append('\n');
+            entities.forEach((entityKey, entry) -> {
+                body.append("  - ").append(entityKey).append(": ").append(entry.latestSummary);
+                if (entry.count > 1) {
+                    body.append(" (").append(entry.count).append(" events, first: ")
+                        .append(label(entry.firstType)).append(')');
+                }
+                body.append('\n');
+            });
+        });
+        if (dropped > 0) {
+            body.append('\n').append(dropped).append(" further event(s) were not itemised because the digest was full.\n");
+        }
+        return body.toString();
+    }
+
+    private static String label(NotificationType type) {
+        return type.name().toLowerCase().replace('_', ' ');
+    }
+
+    private static Set<NotificationType> parseTypes(String csv) {
+        Set<NotificationType> types = EnumSet.noneOf(NotificationType.class);
+        if (!StringUtils.hasText(csv)) {
+            return types;
+        }
+        Stream.of(csv.split(","))
+            .map(String::trim)
+            .filter(StringUtils::hasText)
+            .map(String::toUpperCase)
+            .forEach(name -> types.add(NotificationType.valueOf(name)));
+        return types;
+    }
+
+    private static final class DigestEntry {
+        private NotificationType firstType;
+        private String latestSummary;
+        private int count;
+
+        private void merge(NotificationType type, String summary) {
+            if (firstType == null) {
+                firstType = type;
+            }
+            latestSummary = summary;
+            count++;
+        }
+    }
+}
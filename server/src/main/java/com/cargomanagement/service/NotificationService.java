@@ -1,22 +1,24 @@
 package com.cargomanagement.service;
 
+import com.cargomanagement.dto.EmailMessage;
 import com.cargomanagement.models.Cargo;
 import com.cargomanagement.models.Delivery;
+import com.cargomanagement.models.ImportJob;
 import com.cargomanagement.models.Shipment;
+import com.cargomanagement.util.AfterCommit;
 import jakarta.annotation.PostConstruct;
-import jakarta.mail.internet.MimeMessage;
-import java.nio.charset.StandardCharsets;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.StringUtils;
 
 @Service
@@ -26,16 +28,19 @@ public class NotificationService {
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
-    private final JavaMailSender mailSender;
+    private final EmailDispatcher emailDispatcher;
+    private final NotificationDigester notificationDigester;
+    private final EmailTemplateEngine emailTemplateEngine;
     private final List<String> defaultRecipients;
-    private final String fromAddress;
 
-    public NotificationService(JavaMailSender mailSender,
-                               @Value("${notification.email.recipients:}") String recipients,
-                               @Value("${notification.email.from:}") String fromAddress) {
-        this.mailSender = mailSender;
+    public NotificationService(EmailDispatcher emailDispatcher,
+                               NotificationDigester notificationDigester,
+                               EmailTemplateEngine emailTemplateEngine,
+                               @Value("${notification.email.recipients:}") String recipients) {
+        this.emailDispatcher = emailDispatcher;
+        this.notificationDigester = notificationDigester;
+        this.emailTemplateEngine = emailTemplateEngine;
         this.defaultRecipients = parseRecipients(recipients);
-        this.fromAddress = fromAddress;
     }
 
     @PostConstruct
@@ -51,6 +56,10 @@ public class NotificationService {
         if (cargo == null) {
             return;
         }
+        if (digest(NotificationType.CARGO_CREATED, shipmentIdOf(cargo), "Cargo #" + cargo.getCargoId(),
+                   "created (" + cargo.getType() + ")")) {
+            return;
+        }
         String subject = "Cargo Created - #" + cargo.getCargoId();
         String body = buildCargoMessage("A new cargo record was created.", cargo);
         sendNotification(null, subject, body);
@@ -60,6 +69,10 @@ public class NotificationService {
         if (cargo == null) {
             return;
         }
+        if (digest(NotificationType.CARGO_UPDATED, shipmentIdOf(cargo), "Cargo #" + cargo.getCargoId(),
+                   "updated (" + cargo.getType() + ")")) {
+            return;
+        }
         String subject = "Cargo Updated - #" + cargo.getCargoId();
         String body = buildCargoMessage("A cargo record was updated.", cargo);
         sendNotification(null, subject, body);
@@ -69,15 +82,79 @@ public class NotificationService {
         if (cargo == null) {
             return;
         }
+        if (digest(NotificationType.CARGO_DELETED, shipmentIdOf(cargo), "Cargo #" + cargo.getCargoId(),
+                   "deleted (" + cargo.getType() + ")")) {
+            return;
+        }
         String subject = "Cargo Deleted - #" + cargo.getCargoId();
         String body = buildCargoMessage("A cargo record was deleted.", cargo);
         sendNotification(null, subject, body);
     }
 
+    // One notification per bulk request instead of one per cargo line, grouped by shipment
+    public void notifyCargoBatchCreated(List<Cargo> cargo) {
+        if (cargo == null || cargo.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> perShipment = new LinkedHashMap<>();
+        for (Cargo item : cargo) {
+            perShipment.merge(shipmentIdOf(item), 1, Integer::sum);
+        }
+        if (notificationDigester.isDigested(NotificationType.CARGO_CREATED)) {
+            String entityKey = "Cargo batch from #" + cargo.get(0).getCargoId();
+            AfterCommit.run(() -> perShipment.forEach((shipmentId, count) -> notificationDigester.add(defaultRecipients,
+                    NotificationType.CARGO_CREATED, shipmentId, entityKey, count + " cargo items created")));
+            return;
+        }
+        StringBuilder body = new StringBuilder(cargo.size() + " cargo records were created in one batch.\n\n");
+        perShipment.forEach((shipmentId, count) -> body
+            .append(shipmentId != null ? "Shipment ID " + shipmentId : "Not linked to a shipment")
+            .append(": ").append(count).append('\n'));
+        sendNotification(null, "Cargo Batch Created - " + cargo.size() + " items", body.toString());
+    }
+
+    public void notifyShipmentBatchCreated(List<Shipment> shipments) {
+        if (shipments == null || shipments.isEmpty()) {
+            return;
+        }
+        if (notificationDigester.isDigested(NotificationType.SHIPMENT_CREATED)) {
+            String entityKey = "Shipment batch from SH" + String.format("%03d", shipments.get(0).getShipmentId());
+            int count = shipments.size();
+            AfterCommit.run(() -> notificationDigester.add(defaultRecipients, NotificationType.SHIPMENT_CREATED, null,
+                    entityKey, count + " shipments created"));
+            return;
+        }
+        StringBuilder body = new StringBuilder(shipments.size() + " shipments were created in one batch.\n\n");
+        for (Shipment shipment : shipments) {
+            body.append("SH").append(String.format("%03d", shipment.getShipmentId())).append(": ")
+                .append(shipment.getOrigin()).append(" → ").append(shipment.getDestination())
+                .append(" (").append(shipment.getStatus()).append(")\n");
+        }
+        sendNotification(null, "Shipment Batch Created - " + shipments.size() + " shipments", body.toString());
+    }
+
+    // Manifest imports can create millions of rows, so they report totals once at the end
+    public void notifyImportCompleted(ImportJob job) {
+        if (job == null || job.getCreated() == 0) {
+            return;
+        }
+        String name = StringUtils.hasText(job.getFileName()) ? job.getFileName() : job.getJobId();
+        String body = "A " + job.getFormat() + " " + job.getEntityType().toLowerCase() + " import finished.\n\n"
+            + "Job: " + job.getJobId() + "\n"
+            + "Records read: " + job.getRecordsRead() + "\n"
+            + "Created: " + job.getCreated() + "\n"
+            + "Rejected: " + job.getRejected() + "\n";
+        sendNotification(null, "Import Completed - " + name, body);
+    }
+
     public void notifyShipmentCreated(Shipment shipment) {
         if (shipment == null) {
             return;
         }
+        if (digest(NotificationType.SHIPMENT_CREATED, shipment.getShipmentId(), "Shipment",
+                   "created " + shipment.getOrigin() + " → " + shipment.getDestination() + " (" + shipment.getStatus() + ")")) {
+            return;
+        }
         String subject = "New Shipment Created - SH" + String.format("%03d", shipment.getShipmentId());
         String body = buildShipmentCreatedEmailHtml(shipment);
         sendHtmlNotification(null, subject, body);
@@ -87,6 +164,10 @@ public class NotificationService {
         if (shipment == null) {
             return;
         }
+        if (digest(NotificationType.SHIPMENT_UPDATED, shipment.getShipmentId(), "Shipment",
+                   "status " + previousStatus + " → " + shipment.getStatus())) {
+            return;
+        }
         String subject = "Shipment Status Updated - SH" + String.format("%03d", shipment.getShipmentId());
         String body = buildShipmentUpdatedEmailHtml(shipment, previousStatus);
         sendHtmlNotification(null, subject, body);
@@ -96,6 +177,9 @@ public class NotificationService {
         if (shipment == null) {
             return;
         }
+        if (digest(NotificationType.SHIPMENT_DELETED, shipment.getShipmentId(), "Shipment", "deleted")) {
+            return;
+        }
         String subject = "Shipment Deleted - SH" + String.format("%03d", shipment.getShipmentId());
         String body = buildShipmentDeletedEmailHtml(shipment);
         sendHtmlNotification(null, subject, body);
@@ -105,6 +189,11 @@ public class NotificationService {
         if (delivery == null) {
             return;
         }
+        Long deliveryShipmentId = delivery.getShipment() != null ? delivery.getShipment().getShipmentId() : null;
+        if (digest(NotificationType.DELIVERY_EVENT, deliveryShipmentId, "Delivery #" + delivery.getDeliveryId(),
+                   action.toLowerCase() + " (recipient: " + delivery.getRecipient() + ")")) {
+            return;
+        }
         String subject = "Delivery " + action + " - #" + delivery.getDeliveryId();
         StringBuilder body = new StringBuilder()
             .append("Delivery was ").append(action.toLowerCase()).append(".\n\n")
@@ -145,6 +234,19 @@ public class NotificationService {
         return sendNotification(recipients, subject, message);
     }
 
+    // Queues the event for the next digest when its type is not configured for immediate delivery
+    private boolean digest(NotificationType type, Long shipmentId, String entityKey, String summary) {
+        if (!notificationDigester.isDigested(type)) {
+            return false;
+        }
+        AfterCommit.run(() -> notificationDigester.add(defaultRecipients, type, shipmentId, entityKey, summary));
+        return true;
+    }
+
+    private Long shipmentIdOf(Cargo cargo) {
+        return cargo.getShipment() != null ? cargo.getShipment().getShipmentId() : null;
+    }
+
     private String buildCargoMessage(String header, Cargo cargo) {
         StringBuilder body = new StringBuilder(header)
             .append('\n').append('\n')
@@ -178,37 +280,16 @@ public class NotificationService {
     }
 
     private boolean sendHtmlNotification(List<String> overrideRecipients, String subject, String htmlBody) {
-        List<String> recipients = resolveRecipients(overrideRecipients);
-        if (recipients.isEmpty()) {
-            log.debug("Skipping email notification '{}' because no recipients are configured.", subject);
-            return false;
-        }
-
-        if (!StringUtils.hasText(subject) || !StringUtils.hasText(htmlBody)) {
-            log.warn("Attempted to send email notification with missing subject or body. Skipping.");
-            return false;
-        }
-
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, StandardCharsets.UTF_8.name());
-            helper.setTo(recipients.toArray(String[]::new));
-            if (StringUtils.hasText(fromAddress)) {
-                helper.setFrom(fromAddress);
-            }
-            helper.setSubject(subject);
-            helper.setText(htmlBody, true); // true = HTML content
-
-            mailSender.send(message);
-            log.info("Sent HTML email notification '{}' to {}", subject, recipients);
-            return true;
-        } catch (Exception ex) {
-            log.error("Failed to send email notification '{}': {}", subject, ex.getMessage(), ex);
-            return false;
-        }
+        return enqueue(overrideRecipients, subject, htmlBody, true);
     }
 
     private boolean sendNotification(List<String> overrideRecipients, String subject, String body) {
+        return enqueue(overrideRecipients, subject, body, false);
+    }
+
+    // Hands the email to the async dispatcher once the caller's transaction commits; SMTP latency never reaches
+    // the calling request thread. Inside a transaction the result only reports that the email was accepted.
+    private boolean enqueue(List<String> overrideRecipients, String subject, String body, boolean html) {
         List<String> recipients = resolveRecipients(overrideRecipients);
         if (recipients.isEmpty()) {
             log.debug("Skipping email notification '{}' because no recipients are configured.", subject);
@@ -220,23 +301,16 @@ public class NotificationService {
             return false;
         }
 
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, false, StandardCharsets.UTF_8.name());
-            helper.setTo(recipients.toArray(String[]::new));
-            if (StringUtils.hasText(fromAddress)) {
-                helper.setFrom(fromAddress);
-            }
-            helper.setSubject(subject);
-            helper.setText(body, false);
-
-            mailSender.send(message);
-            log.info("Sent email notification '{}' to {}", subject, recipients);
+        EmailMessage message = new EmailMessage();
+        message.setRecipients(recipients);
+        message.setSubject(subject);
+        message.setBody(body);
+        message.setHtml(html);
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            AfterCommit.run(() -> emailDispatcher.dispatch(message));
             return true;
-        } catch (Exception ex) {
-            log.error("Failed to send email notification '{}': {}", subject, ex.getMessage(), ex);
-            return false;
         }
+        return emailDispatcher.dispatch(message);
     }
 
     private List<String> resolveRecipients(List<String> overrideRecipients) {
@@ -276,7 +350,7 @@ public class NotificationService {
             .toList();
     }
 
-    // HTML Email Template Builders
+    // HTML Email Template Builders (templates live in resources/templates/email)
     
     private String buildShipmentCreatedEmailHtml(Shipment shipment) {
         String shipmentId = String.format("SH%03d", shipment.getShipmentId());
@@ -298,133 +372,16 @@ public class NotificationService {
             ? shipment.getShipmentCode() 
             : "Not generated";
 
-        return String.format("""
-            <!DOCTYPE html>
-            <html lang="en">
-            <head>
-                <meta charset="UTF-8">
-                <meta name="viewport" content="width=device-width, initial-scale=1.0">
-                <title>Shipment Created</title>
-            </head>
-            <body style="margin: 0; padding: 0; font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif; background-color: #f5f5f5;">
-                <table role="presentation" style="width: 100%%; border-collapse: collapse; background-color: #f5f5f5; padding: 20px 0;">
-                    <tr>
-                        <td align="center">
-                            <table role="presentation" style="max-width: 600px; width: 100%%; border-collapse: collapse; background-color: #ffffff; box-shadow: 0 2px 8px rgba(0,0,0,0.1);">
-                                <!-- Header -->
-                                <tr>
-                                    <td style="background: linear-gradient(135deg, #667eea 0%%, #764ba2 100%%); padding: 40px 30px; text-align: center;">
-                                        <h1 style="margin: 0; color: #ffffff; font-size: 28px; font-weight: 600; letter-spacing: -0.5px;">New Shipment Created</h1>
-                                        <p style="margin: 10px 0 0 0; color: #ffffff; font-size: 16px; opacity: 0.95;">%s</p>
-                                    </td>
-                                </tr>
-                                
-                                <!-- Content -->
-                                <tr>
-                                    <td style="padding: 40px 30px; background-color: #ffffff;">
-                                        <p style="margin: 0 0 25px 0; color: #374151; font-size: 16px; line-height: 1.6;">
-                                            A new shipment has been successfully created in the system. Please find the details below:
-                                        </p>
-                                        
-                                        <!-- Info Box -->
-                                        <table role="presentation" style="width: 100%%; border-collapse: collapse; background-color: #f9fafb; border: 1px solid #e5e7eb; border-radius: 8px; margin-bottom: 25px;">
-                                            <tr>
-                                                <td style="padding: 25px;">
-                                                    <h2 style="margin: 0 0 20px 0; color: #667eea; font-size: 18px; font-weight: 600; border-bottom: 2px solid #667eea; padding-bottom: 10px;">Shipment Information</h2>
-                                                    
-                                                    <table role="presentation" style="width: 100%%; border-collapse: collapse;">
-                                                        <tr>
-                                                            <td style="padding: 12px 0; border-bottom: 1px solid #e5e7eb;">
-                                                                <span style="color: #6b7280; font-size: 14px; font-weight: 600;">Shipment ID:</span>
-                                                            </td>
-                                                            <td style="padding: 12px 0; border-bottom: 1px solid #e5e7eb; text-align: right;">
-                                                                <span style="color: #111827; font-size: 14px; font-weight: 500;">%s</span>
-                                                            </td>
-                                                        </tr>
-                                                        <tr>
-                                                            <td style="padding: 12px 0; border-bottom: 1px solid #e5e7eb;">
-                                                                <span style="color: #6b7280; font-size: 14px; font-weight: 600;">Shipment Code:</span>
-                                                            </td>
-                                                            <td style="padding: 12px 0; border-bottom: 1px solid #e5e7eb; text-align: right;">
-                                                                <span style="color: #111827; font-size: 14px; font-weight: 500;">%s</span>
-                                                            </td>
-                                                        </tr>
-                                                        <tr>
-                                                            <td style="padding: 12px 0; border-bottom: 1px solid #e5e7eb;">
-                                                                <span style="color: #6b7280; font-size: 14px; font-weight: 600;">Origin:</span>
-                                                            </td>
-                                                            <td style="padding: 12px 0; border-bottom: 1px solid #e5e7eb; text-align: right;">
-                                                                <span style="color: #111827; font-size: 14px; font-weight: 500;">%s</span>
-                                                            </td>
-                                                        </tr>
-                                                        <tr>
-                                                            <td style="padding: 12px 0; border-bottom: 1px solid #e5e7eb;">
-                                                                <span style="color: #6b7280; font-size: 14px; font-weight: 600;">Destination:</span>
-                                                            </td>
-                                                            <td style="padding: 12px 0; border-bottom: 1px solid #e5e7eb; text-align: right;">
-                                                                <span style="color: #111827; font-size: 14px; font-weight: 500;">%s</span>
-                                                            </td>
-                                                        </tr>
-                                                        <tr>
-                                                            <td style="padding: 12px 0; border-bottom: 1px solid #e5e7eb;">
-                                                                <span style="color: #6b7280; font-size: 14px; font-weight: 600;">Current Status:</span>
-                                                            </td>
-                                                            <td style="padding: 12px 0; border-bottom: 1px solid #e5e7eb; text-align: right;">
-                                                                <span style="display: inline-block; padding: 4px 12px; background-color: #fef3c7; color: #92400e; border-radius: 12px; font-size: 13px; font-weight: 600;">%s</span>
-                                                            </td>
-                                                        </tr>
-                                                        <tr>
-                                                            <td style="padding: 12px 0; border-bottom: 1px solid #e5e7eb;">
-                                                                <span style="color: #6b7280; font-size: 14px; font-weight: 600;">Estimated Delivery:</span>
-                                                            </td>
-                                                            <td style="padding: 12px 0; border-bottom: 1px solid #e5e7eb; text-align: right;">
-                                                                <span style="color: #111827; font-size: 14px; font-weight: 500;">%s</span>
-                                                            </td>
-                                                        </tr>
-                                                        <tr>
-                                                            <td style="padding: 12px 0; border-bottom: 1px solid #e5e7eb;">
-                                                                <span style="color: #6b7280; font-size: 14px; font-weight: 600;">Assigned Route:</span>
-                                                            </td>
-                                                            <td style="padding: 12px 0; border-bottom: 1px solid #e5e7eb; text-align: right;">
-                                                                <span style="color: #111827; font-size: 14px; font-weight: 500;">%s</span>
-                                                            </td>
-                                                        </tr>
-                                                        <tr>
-                                                            <td style="padding: 12px 0;">
-                                                                <span style="color: #6b7280; font-size: 14px; font-weight: 600;">Assigned Vendor:</span>
-                                                            </td>
-                                                            <td style="padding: 12px 0; text-align: right;">
-                                                                <span style="color: #111827; font-size: 14px; font-weight: 500;">%s</span>
-                                                            </td>
-                                                        </tr>
-                                                    </table>
-                                                </td>
-                                            </tr>
-                                        </table>
-                                        
-                                        <p style="margin: 0; color: #6b7280; font-size: 14px; line-height: 1.6;">
-                                            This shipment is now active in the system and can be tracked through the cargo management dashboard.
-                                        </p>
-                                    </td>
-                                </tr>
-                                
-                                <!-- Footer -->
-                                <tr>
-                                    <td style="background-color: #f3f4f6; padding: 30px; text-align: center; border-top: 1px solid #e5e7eb;">
-                                        <p style="margin: 0 0 10px 0; color: #111827; font-size: 14px; font-weight: 600;">Cargo Management System</p>
-                                        <p style="margin: 0 0 5px 0; color: #6b7280; font-size: 12px;">This is an automated notification. Please do not reply to this email.</p>
-                                        <p style="margin: 0; color: #9ca3af; font-size: 11px;">&copy; 2025 Maersk Supply Chain Management. All rights reserved.</p>
-                                    </td>
-                                </tr>
-                            </table>
-                        </td>
-                    </tr>
-                </table>
-            </body>
-            </html>
-            """, 
-            shipmentId, shipmentId, shipmentCode, origin, destination, status, estimatedDelivery, routeName, vendorName
-        );
+        return emailTemplateEngine.render("shipment-created", Map.of(
+            "shipmentId", shipmentId,
+            "shipmentCode", shipmentCode,
+            "origin", origin,
+            "destination", destination,
+            "status", status,
+            "estimatedDelivery", estimatedDelivery,
+            "routeName", routeName,
+            "vendorName", vendorName
+        ));
     }
 
     private String buildShipmentUpdatedEmailHtml(Shipment shipment, String previousStatus) {
@@ -440,131 +397,15 @@ public class NotificationService {
             ? shipment.getShipmentCode() 
             : "Not generated";
 
-        return String.format("""
-            <!DOCTYPE html>
-            <html lang="en">
-            <head>
-                <meta charset="UTF-8">
-                <meta name="viewport" content="width=device-width, initial-scale=1.0">
-                <title>Shipment Updated</title>
-            </head>
-            <body style="margin: 0; padding: 0; font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif; background-color: #f5f5f5;">
-                <table role="presentation" style="width: 100%%; border-collapse: collapse; background-color: #f5f5f5; padding: 20px 0;">
-                    <tr>
-                        <td align="center">
-                            <table role="presentation" style="max-width: 600px; width: 100%%; border-collapse: collapse; background-color: #ffffff; box-shadow: 0 2px 8px rgba(0,0,0,0.1);">
-                                <!-- Header -->
-                                <tr>
-                                    <td style="background: linear-gradient(135deg, #f59e0b 0%%, #d97706 100%%); padding: 40px 30px; text-align: center;">
-                                        <h1 style="margin: 0; color: #ffffff; font-size: 28px; font-weight: 600; letter-spacing: -0.5px;">Shipment Status Updated</h1>
-                                        <p style="margin: 10px 0 0 0; color: #ffffff; font-size: 16px; opacity: 0.95;">%s</p>
-                                    </td>
-                                </tr>
-                                
-                                <!-- Content -->
-                                <tr>
-                                    <td style="padding: 40px 30px; background-color: #ffffff;">
-                                        <p style="margin: 0 0 25px 0; color: #374151; font-size: 16px; line-height: 1.6;">
-                                            The shipment status has been updated. Please review the changes below:
-                                        </p>
-                                        
-                                        <!-- Status Change Box -->
-                                        <table role="presentation" style="width: 100%%; border-collapse: collapse; background-color: #dbeafe; border: 1px solid #93c5fd; border-radius: 8px; margin-bottom: 25px;">
-                                            <tr>
-                                                <td style="padding: 20px; text-align: center;">
-                                                    <p style="margin: 0 0 12px 0; color: #1e40af; font-size: 14px; font-weight: 600;">Status Changed</p>
-                                                    <div style="display: inline-block;">
-                                                        <span style="display: inline-block; padding: 8px 16px; background-color: #fee2e2; color: #991b1b; border-radius: 12px; font-size: 14px; font-weight: 600; margin: 0 8px;">%s</span>
-                                                        <span style="color: #6b7280; font-size: 18px; margin: 0 8px;">→</span>
-                                                        <span style="display: inline-block; padding: 8px 16px; background-color: #d1fae5; color: #065f46; border-radius: 12px; font-size: 14px; font-weight: 600; margin: 0 8px;">%s</span>
-                                                    </div>
-                                                </td>
-                                            </tr>
-                                        </table>
-                                        
-                                        <!-- Info Box -->
-                                        <table role="presentation" style="width: 100%%; border-collapse: collapse; background-color: #f9fafb; border: 1px solid #e5e7eb; border-radius: 8px; margin-bottom: 25px;">
-                                            <tr>
-                                                <td style="padding: 25px;">
-                                                    <h2 style="margin: 0 0 20px 0; color: #f59e0b; font-size: 18px; font-weight: 600; border-bottom: 2px solid #f59e0b; padding-bottom: 10px;">Current Shipment Details</h2>
-                                                    
-                                                    <table role="presentation" style="width: 100%%; border-collapse: collapse;">
-                                                        <tr>
-                                                            <td style="padding: 12px 0; border-bottom: 1px solid #e5e7eb;">
-                                                                <span style="color: #6b7280; font-size: 14px; font-weight: 600;">Shipment ID:</span>
-                                                            </td>
-                                                            <td style="padding: 12px 0; border-bottom: 1px solid #e5e7eb; text-align: right;">
-                                                                <span style="color: #111827; font-size: 14px; font-weight: 500;">%s</span>
-                                                            </td>
-                                                        </tr>
-                                                        <tr>
-                                                            <td style="padding: 12px 0; border-bottom: 1px solid #e5e7eb;">
-                                                                <span style="color: #6b7280; font-size: 14px; font-weight: 600;">Shipment Code:</span>
-                                                            </td>
-                                                            <td style="padding: 12px 0; border-bottom: 1px solid #e5e7eb; text-align: right;">
-                                                                <span style="color: #111827; font-size: 14px; font-weight: 500;">%s</span>
-                                                            </td>
-                                                        </tr>
-                                                        <tr>
-                                                            <td style="padding: 12px 0; border-bottom: 1px solid #e5e7eb;">
-                                                                <span style="color: #6b7280; font-size: 14px; font-weight: 600;">Origin:</span>
-                                                            </td>
-                                                            <td style="padding: 12px 0; border-bottom: 1px solid #e5e7eb; text-align: right;">
-                                                                <span style="color: #111827; font-size: 14px; font-weight: 500;">%s</span>
-                                                            </td>
-                                                        </tr>
-                                                        <tr>
-                                                            <td style="padding: 12px 0; border-bottom: 1px solid #e5e7eb;">
-                                                                <span style="color: #6b7280; font-size: 14px; font-weight: 600;">Destination:</span>
-                                                            </td>
-                                                            <td style="padding: 12px 0; border-bottom: 1px solid #e5e7eb; text-align: right;">
-                                                                <span style="color: #111827; font-size: 14px; font-weight: 500;">%s</span>
-                                                            </td>
-                                                        </tr>
-                                                        <tr>
-                                                            <td style="padding: 12px 0; border-bottom: 1px solid #e5e7eb;">
-                                                                <span style="color: #6b7280; font-size: 14px; font-weight: 600;">Current Status:</span>
-                                                            </td>
-                                                            <td style="padding: 12px 0; border-bottom: 1px solid #e5e7eb; text-align: right;">
-                                                                <span style="display: inline-block; padding: 4px 12px; background-color: #d1fae5; color: #065f46; border-radius: 12px; font-size: 13px; font-weight: 600;">%s</span>
-                                                            </td>
-                                                        </tr>
-                                                        <tr>
-                                                            <td style="padding: 12px 0;">
-                                                                <span style="color: #6b7280; font-size: 14px; font-weight: 600;">Estimated Delivery:</span>
-                                                            </td>
-                                                            <td style="padding: 12px 0; text-align: right;">
-                                                                <span style="color: #111827; font-size: 14px; font-weight: 500;">%s</span>
-                                                            </td>
-                                                        </tr>
-                                                    </table>
-                                                </td>
-                                            </tr>
-                                        </table>
-                                        
-                                        <p style="margin: 0; color: #6b7280; font-size: 14px; line-height: 1.6;">
-                                            You can track this shipment's progress through the cargo management dashboard.
-                                        </p>
-                                    </td>
-                                </tr>
-                                
-                                <!-- Footer -->
-                                <tr>
-                                    <td style="background-color: #f3f4f6; padding: 30px; text-align: center; border-top: 1px solid #e5e7eb;">
-                                        <p style="margin: 0 0 10px 0; color: #111827; font-size: 14px; font-weight: 600;">Cargo Management System</p>
-                                        <p style="margin: 0 0 5px 0; color: #6b7280; font-size: 12px;">This is an automated notification. Please do not reply to this email.</p>
-                                        <p style="margin: 0; color: #9ca3af; font-size: 11px;">&copy; 2025 Maersk Supply Chain Management. All rights reserved.</p>
-                                    </td>
-                                </tr>
-                            </table>
-                        </td>
-                    </tr>
-                </table>
-            </body>
-            </html>
-            """, 
-            shipmentId, oldStatus, currentStatus, shipmentId, shipmentCode, origin, destination, currentStatus, estimatedDelivery
-        );
+        return emailTemplateEngine.render("shipment-updated", Map.of(
+            "shipmentId", shipmentId,
+            "oldStatus", oldStatus,
+            "currentStatus", currentStatus,
+            "shipmentCode", shipmentCode,
+            "origin", origin,
+            "destination", destination,
+            "estimatedDelivery", estimatedDelivery
+        ));
     }
 
     private String buildShipmentDeletedEmailHtml(Shipment shipment) {
@@ -576,119 +417,12 @@ public class NotificationService {
             ? shipment.getShipmentCode() 
             : "Not generated";
 
-        return String.format("""
-            <!DOCTYPE html>
-            <html lang="en">
-            <head>
-                <meta charset="UTF-8">
-                <meta name="viewport" content="width=device-width, initial-scale=1.0">
-                <title>Shipment Deleted</title>
-            </head>
-            <body style="margin: 0; padding: 0; font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif; background-color: #f5f5f5;">
-                <table role="presentation" style="width: 100%%; border-collapse: collapse; background-color: #f5f5f5; padding: 20px 0;">
-                    <tr>
-                        <td align="center">
-                            <table role="presentation" style="max-width: 600px; width: 100%%; border-collapse: collapse; background-color: #ffffff; box-shadow: 0 2px 8px rgba(0,0,0,0.1);">
-                                <!-- Header -->
-                                <tr>
-                                    <td style="background: linear-gradient(135deg, #dc2626 0%%, #991b1b 100%%); padding: 40px 30px; text-align: center;">
-                                        <h1 style="margin: 0; color: #ffffff; font-size: 28px; font-weight: 600; letter-spacing: -0.5px;">Shipment Deleted</h1>
-                                        <p style="margin: 10px 0 0 0; color: #ffffff; font-size: 16px; opacity: 0.95;">%s has been removed</p>
-                                    </td>
-                                </tr>
-                                
-                                <!-- Content -->
-                                <tr>
-                                    <td style="padding: 40px 30px; background-color: #ffffff;">
-                                        <!-- Warning Box -->
-                                        <table role="presentation" style="width: 100%%; border-collapse: collapse; background-color: #fef2f2; border: 1px solid #fee2e2; border-radius: 8px; margin-bottom: 25px;">
-                                            <tr>
-                                                <td style="padding: 20px; text-align: center;">
-                                                    <p style="margin: 0; color: #dc2626; font-size: 15px; font-weight: 600; line-height: 1.6;">
-                                                        Warning: This shipment has been permanently deleted from the system
-                                                    </p>
-                                                </td>
-                                            </tr>
-                                        </table>
-                                        
-                                        <p style="margin: 0 0 25px 0; color: #374151; font-size: 16px; line-height: 1.6;">
-                                            A shipment record has been removed from the cargo management system. Details of the deleted shipment are provided below for your records:
-                                        </p>
-                                        
-                                        <!-- Info Box -->
-                                        <table role="presentation" style="width: 100%%; border-collapse: collapse; background-color: #f9fafb; border: 1px solid #e5e7eb; border-radius: 8px; margin-bottom: 25px;">
-                                            <tr>
-                                                <td style="padding: 25px;">
-                                                    <h2 style="margin: 0 0 20px 0; color: #dc2626; font-size: 18px; font-weight: 600; border-bottom: 2px solid #dc2626; padding-bottom: 10px;">Deleted Shipment Details</h2>
-                                                    
-                                                    <table role="presentation" style="width: 100%%; border-collapse: collapse;">
-                                                        <tr>
-                                                            <td style="padding: 12px 0; border-bottom: 1px solid #e5e7eb;">
-                                                                <span style="color: #6b7280; font-size: 14px; font-weight: 600;">Shipment ID:</span>
-                                                            </td>
-                                                            <td style="padding: 12px 0; border-bottom: 1px solid #e5e7eb; text-align: right;">
-                                                                <span style="color: #111827; font-size: 14px; font-weight: 500;">%s</span>
-                                                            </td>
-                                                        </tr>
-                                                        <tr>
-                                                            <td style="padding: 12px 0; border-bottom: 1px solid #e5e7eb;">
-                                                                <span style="color: #6b7280; font-size: 14px; font-weight: 600;">Shipment Code:</span>
-                                                            </td>
-                                                            <td style="padding: 12px 0; border-bottom: 1px solid #e5e7eb; text-align: right;">
-                                                                <span style="color: #111827; font-size: 14px; font-weight: 500;">%s</span>
-                                                            </td>
-                                                        </tr>
-                                                        <tr>
-                                                            <td style="padding: 12px 0; border-bottom: 1px solid #e5e7eb;">
-                                                                <span style="color: #6b7280; font-size: 14px; font-weight: 600;">Origin:</span>
-                                                            </td>
-                                                            <td style="padding: 12px 0; border-bottom: 1px solid #e5e7eb; text-align: right;">
-                                                                <span style="color: #111827; font-size: 14px; font-weight: 500;">%s</span>
-                                                            </td>
-                                                        </tr>
-                                                        <tr>
-                                                            <td style="padding: 12px 0; border-bottom: 1px solid #e5e7eb;">
-                                                                <span style="color: #6b7280; font-size: 14px; font-weight: 600;">Destination:</span>
-                                                            </td>
-                                                            <td style="padding: 12px 0; border-bottom: 1px solid #e5e7eb; text-align: right;">
-                                                                <span style="color: #111827; font-size: 14px; font-weight: 500;">%s</span>
-                                                            </td>
-                                                        </tr>
-                                                        <tr>
-                                                            <td style="padding: 12px 0;">
-                                                                <span style="color: #6b7280; font-size: 14px; font-weight: 600;">Last Status:</span>
-                                                            </td>
-                                                            <td style="padding: 12px 0; text-align: right;">
-                                                                <span style="display: inline-block; padding: 4px 12px; background-color: #fee2e2; color: #991b1b; border-radius: 12px; font-size: 13px; font-weight: 600;">%s</span>
-                                                            </td>
-                                                        </tr>
-                                                    </table>
-                                                </td>
-                                            </tr>
-                                        </table>
-                                        
-                                        <p style="margin: 0; color: #6b7280; font-size: 14px; line-height: 1.6;">
-                                            If this deletion was made in error, please contact your system administrator immediately.
-                                        </p>
-                                    </td>
-                                </tr>
-                                
-                                <!-- Footer -->
-                                <tr>
-                                    <td style="background-color: #f3f4f6; padding: 30px; text-align: center; border-top: 1px solid #e5e7eb;">
-                                        <p style="margin: 0 0 10px 0; color: #111827; font-size: 14px; font-weight: 600;">Cargo Management System</p>
-                                        <p style="margin: 0 0 5px 0; color: #6b7280; font-size: 12px;">This is an automated notification. Please do not reply to this email.</p>
-                                        <p style="margin: 0; color: #9ca3af; font-size: 11px;">&copy; 2025 Maersk Supply Chain Management. All rights reserved.</p>
-                                    </td>
-                                </tr>
-                            </table>
-                        </td>
-                    </tr>
-                </table>
-            </body>
-            </html>
-            """, 
-            shipmentId, shipmentId, shipmentCode, origin, destination, status
-        );
+        return emailTemplateEngine.render("shipment-deleted", Map.of(
+            "shipmentId", shipmentId,
+            "shipmentCode", shipmentCode,
+            "origin", origin,
+            "destination", destination,
+            "status", status
+        ));
     }
 }
@@ -0,0 +1,12 @@
+package com.cargomanagement.service;
+
+// Event types that produce email notifications; used to decide between immediate and digested delivery
+public enum NotificationType {
+    CARGO_CREATED,
+    CARGO_UPDATED,
+    CARGO_DELETED,
+    SHIPMENT_CREATED,
+    SHIPMENT_UPDATED,
+    SHIPMENT_DELETED,
+    DELIVERY_EVENT
+}
@@ -0,0 +1,197 @@
+package com.cargomanagement.service;
+
+import com.cargomanagement.models.OutboxEvent;
+import com.cargomanagement.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Drains the outbox table to Kafka in three steps, so no row lock is held while waiting on the broker:
+ * <ol>
+ *   <li>claim: lock a batch of due rows and lease them (available_at = now + lease) in a short transaction;</li>
+ *   <li>send the batch, one row per key at a time, within kafka.outbox.send-timeout-ms and outside any transaction;</li>
+ *   <li>settle: delete the acknowledged rows and reschedule the rest in a second short transaction.</li>
+ * </ol>
+ * A failed row backs off exponentially and is parked (status PARKED, never relayed again) after
+ * kafka.outbox.max-attempts, so a permanently rejected record cannot block the relay. Events for one key stay in
+ * order: a row is not sent until the previous row of its key has been acknowledged, and rows behind a failed row
+ * are held back until it succeeds or is parked. Delivery is at-least-once: a relay that dies after sending but
+ * before settling, or a send that times out but still reaches the broker, is sent again, and consumers see the
+ * duplicate.
+ */
+@Service
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+    private static final int MAX_ERROR_LENGTH = 500;
+    private static final long MAX_BACKOFF_MS = TimeUnit.MINUTES.toMillis(5);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaProducerService kafkaProducerService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    // A ReentrantLock rather than a monitor: it is held across Kafka and JDBC calls, which would pin a virtual thread
+    private final ReentrantLock relayLock = new ReentrantLock();
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaProducerService kafkaProducerService,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${kafka.outbox.batch-size:200}") int batchSize,
+                       @Value("${kafka.outbox.send-timeout-ms:10000}") long sendTimeoutMs,
+                       @Value("${kafka.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${kafka.outbox.retry-backoff-ms:1000}") long retryBackoffMs) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaProducerService = kafkaProducerService;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+    }
+
+    @Scheduled(fixedDelayString = "${kafka.outbox.poll-interval-ms:500}")
+    public void scheduledRun() {
+        try {
+            relay();
+        } catch (Exception e) {
+            log.error("Outbox relay failed: {}", e.getMessage(), e);
+        }
+    }
+
+    // Returns the number of events acknowledged by Kafka; keeps draining while full batches are claimed
+    public int relay() {
+        relayLock.lock();
+        try {
+            int total = 0;
+            while (true) {
+                List<OutboxEvent> rows = transactionTemplate.execute(status -> claim());
+                if (rows == null || rows.isEmpty()) {
+                    break;
+                }
+                total += sendAndSettle(rows);
+                if (rows.size() < batchSize) {
+                    break;
+                }
+            }
+            return total;
+        } finally {
+            relayLock.unlock();
+        }
+    }
+
+    private List<OutboxEvent> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> rows = outboxEventRepository.lockOldest(now, batchSize);
+        // Twice the send timeout: long enough to settle, short enough that rows of a crashed relay come back
+        LocalDateTime leaseUntil = now.plusNanos(TimeUnit.MILLISECONDS.toNanos(2 * sendTimeoutMs));
+        for (OutboxEvent row : rows) {
+            row.setAvailableAt(leaseUntil);
+        }
+        return rows;
+    }
+
+    /**
+     * Sends in waves: each wave holds the next row of every key still in play, so the producer batches across keys
+     * while each key has at most one record in flight. A row is only sent once the previous row of its key was
+     * acknowledged; after a failure the rest of that key waits for the next batch and is never sent ahead of it.
+     */
+    private int sendAndSettle(List<OutboxEvent> rows) {
+        Map<String, Deque<OutboxEvent>> byKey = new LinkedHashMap<>();
+        for (OutboxEvent row : rows) {
+            byKey.computeIfAbsent(row.getEventKey(), key -> new ArrayDeque<>()).add(row);
+        }
+
+        Set<String> failedKeys = new HashSet<>();
+        List<Long> delivered = new ArrayList<>(rows.size());
+        List<OutboxEvent> rescheduled = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        while (System.nanoTime() < deadline) {
+            List<OutboxEvent> wave = new ArrayList<>();
+            List<CompletableFuture<?>> futures = new ArrayList<>();
+            for (Map.Entry<String, Deque<OutboxEvent>> entry : byKey.entrySet()) {
+                if (!failedKeys.contains(entry.getKey()) && !entry.getValue().isEmpty()) {
+                    OutboxEvent row = entry.getValue().poll();
+                    wave.add(row);
+                    futures.add(kafkaProducerService.sendMessage(row.getTopic(), row.getEventKey(), row.getPayload()));
+                }
+            }
+            if (wave.isEmpty()) {
+                break;
+            }
+            for (int i = 0; i < wave.size(); i++) {
+                OutboxEvent row = wave.get(i);
+                try {
+                    long remaining = Math.max(0, deadline - System.nanoTime());
+                    futures.get(i).get(remaining, TimeUnit.NANOSECONDS);
+                    delivered.add(row.getOutboxId());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    markFailed(row, e, now);
+                    rescheduled.add(row);
+                    failedKeys.add(row.getEventKey());
+                } catch (Exception e) {
+                    markFailed(row, e, now);
+                    rescheduled.add(row);
+                    failedKeys.add(row.getEventKey());
+                }
+            }
+        }
+        // Never sent, behind a failed row of their key or out of time: released to go out right after it
+        for (Deque<OutboxEvent> held : byKey.values()) {
+            for (OutboxEvent row : held) {
+                row.setAvailableAt(now);
+                rescheduled.add(row);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!delivered.isEmpty()) {
+                outboxEventRepository.deleteAllByIdIn(delivered);
+            }
+            if (!rescheduled.isEmpty()) {
+                outboxEventRepository.saveAll(rescheduled);
+            }
+        });
+        if (delivered.size() < rows.size()) {
+            log.warn("Outbox relay: {} of {} events not acknowledged or held back, will retry",
+                rows.size() - delivered.size(), rows.size());
+        }
+        return delivered.size();
+    }
+
+    private void markFailed(OutboxEvent row, Exception e, LocalDateTime now) {
+        String message = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+        row.setAttempts(row.getAttempts() + 1);
+        row.setLastError(message != null && message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+        if (row.getAttempts() >= maxAttempts) {
+            row.setStatus(OutboxEvent.PARKED);
+            row.setAvailableAt(now);
+            log.error("Outbox event {} to {} (key {}) parked after {} attempts: {}",
+                row.getOutboxId(), row.getTopic(), row.getEventKey(), row.getAttempts(), row.getLastError());
+            return;
+        }
+        long backoff = Math.min(MAX_BACKOFF_MS, retryBackoffMs << Math.min(row.getAttempts() - 1, 20));
+        row.setAvailableAt(now.plusNanos(TimeUnit.MILLISECONDS.toNanos(backoff)));
+    }
+}
@@ -0,0 +1,517 @@
+package com.cargomanagement.service;
+
+import com.cargomanagement.config.WorkerThreadFactory;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Server-Sent Events fan-out of the *-events topics for read-only clients.
+ * Events come from one feed consumer per node that is assigned every partition of the topics (no consumer
+ * group), so each node streams every event whatever the WebSocket listeners' group set-up.
+ * Connections are servlet async requests, so an idle stream holds no thread; writes happen on a small shared
+ * sender pool, one drain at a time per stream. Every event id is the subscriber's own Kafka offset vector
+ * ("partition:offset,..." of the last record actually sent to it per partition). A client reconnecting with
+ * Last-Event-ID is first caught up from Kafka and then switched to live delivery, so nothing is lost
+ * across reconnects. Catch-ups run on their own small pool (sse.catch-up-threads, sse.catch-up-queue-capacity):
+ * each one holds a thread and a Kafka consumer until its replay is done, so a reconnect storm queues up there, or
+ * is turned away when the queue is full, instead of starving the senders of live streams. A client that falls more than sse.max-pending-frames behind is disconnected
+ * instead of buffered; it reconnects and catches up from the log.
+ */
+@Service
+public class SseBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(SseBroadcaster.class);
+
+    public static final Map<String, String> STREAM_TOPICS = Map.of(
+        "shipments", "shipment-events",
+        "cargo", "cargo-events",
+        "routes", "route-events",
+        "vendors", "vendor-events",
+        "deliveries", "delivery-events");
+
+    private static final String CATCH_UP_GROUP = "supply-chain-sse";
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+    private static final Duration METADATA_TIMEOUT = Duration.ofSeconds(5);
+    private static final long PARTITION_REFRESH_MS = 60_000;
+    private static final long FEED_ERROR_BACKOFF_MS = 5_000;
+
+    private final ConsumerFactory<Object, Object> consumerFactory;
+    private final long timeoutMs;
+    private final int maxPendingFrames;
+    private final int maxCatchUpRecords;
+    private final ThreadPoolExecutor senders;
+    private final ThreadPoolExecutor catchUps;
+    private final ScheduledExecutorService heartbeats;
+
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    // topic -> partition -> offset of the last record handed to subscribers; written by the feed thread only
+    private final Map<String, Map<Integer, Long>> lastOffsets = new ConcurrentHashMap<>();
+    private final ReentrantLock feedStartLock = new ReentrantLock();
+    private volatile Consumer<Object, Object> feedConsumer;
+    private volatile boolean stopped;
+
+    public SseBroadcaster(ConsumerFactory<Object, Object> consumerFactory,
+                          WorkerThreadFactory workerThreadFactory,
+                          @Value("${sse.timeout-ms:1800000}") long timeoutMs,
+                          @Value("${sse.heartbeat-ms:25000}") long heartbeatMs,
+                          @Value("${sse.max-pending-frames:100}") int maxPendingFrames,
+                          @Value("${sse.max-catch-up-records:10000}") int maxCatchUpRecords,
+                          @Value("${sse.sender-threads:4}") int senderThreads,
+                          @Value("${sse.catch-up-threads:2}") int catchUpThreads,
+                          @Value("${sse.catch-up-queue-capacity:100}") int catchUpQueueCapacity) {
+        this.consumerFactory = consumerFactory;
+        this.timeoutMs = timeoutMs;
+        this.maxPendingFrames = maxPendingFrames;
+        this.maxCatchUpRecords = maxCatchUpRecords;
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(10000), workerThreadFactory.create("sse-sender-"));
+        this.catchUps = new ThreadPoolExecutor(catchUpThreads, catchUpThreads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(catchUpQueueCapacity), workerThreadFactory.create("sse-catch-up-"));
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sse-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeats.scheduleWithFixedDelay(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopped = true;
+        Consumer<Object, Object> feed = feedConsumer;
+        if (feed != null) {
+            feed.wakeup();
+        }
+        heartbeats.shutdownNow();
+        senders.shutdownNow();
+        catchUps.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    public SseEmitter subscribe(String stream, String entityId, String lastEventId) {
+        String topic = STREAM_TOPICS.get(stream);
+        if (topic == null) {
+            throw new IllegalArgumentException("Unknown stream: " + stream + " (expected one of " + STREAM_TOPICS.keySet() + ")");
+        }
+        Map<Integer, Long> resumeFrom = lastEventId != null && !lastEventId.isBlank() ? parseOffsets(lastEventId) : null;
+        startFeed();
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(topic, entityId, emitter);
+        subscriber.catchingUp = resumeFrom != null;
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        subscribers.computeIfAbsent(topic, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+
+        if (resumeFrom != null) {
+            // Rejected when the catch-up queue is full: the stream is closed and the browser retries later
+            execute(catchUps, subscriber, () -> catchUp(subscriber, resumeFrom));
+        } else {
+            // Read after registering: a record missing from this vector is published after the subscriber is
+            // visible, so it reaches the stream; records inside it count as before the subscription
+            subscriber.delivered.putAll(lastOffsets.getOrDefault(topic, Map.of()));
+            // Gives the client an id to resume from even if no event arrives before it disconnects
+            subscriber.enqueue(Frame.READY);
+        }
+        return emitter;
+    }
+
+    // Called by the feed thread with every polled batch of one topic
+    private void publish(String topic, List<ConsumerRecord<String, String>> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        Map<Integer, Long> offsets = lastOffsets.computeIfAbsent(topic, key -> new ConcurrentHashMap<>());
+        for (ConsumerRecord<String, String> record : records) {
+            offsets.merge(record.partition(), record.offset(), Math::max);
+        }
+        Set<Subscriber> targets = subscribers.get(topic);
+        if (targets == null || targets.isEmpty()) {
+            return;
+        }
+        Frame frame = Frame.events(records);
+        for (Subscriber subscriber : targets) {
+            subscriber.enqueue(frame);
+        }
+    }
+
+    // Started by the first subscriber. The start positions are read before this returns, so every subscriber
+    // gets an initial offset vector the feed continues from.
+    private void startFeed() {
+        if (feedConsumer != null) {
+            return;
+        }
+        feedStartLock.lock();
+        try {
+            if (feedConsumer != null || stopped) {
+                return;
+            }
+            Consumer<Object, Object> consumer = createConsumer();
+            try {
+                List<TopicPartition> partitions = new ArrayList<>();
+                for (String topic : STREAM_TOPICS.values()) {
+                    partitions.addAll(partitions(consumer, topic));
+                }
+                consumer.assign(partitions);
+                consumer.endOffsets(partitions, METADATA_TIMEOUT).forEach((partition, end) -> {
+                    consumer.seek(partition, end);
+                    lastOffsets.computeIfAbsent(partition.topic(), key -> new ConcurrentHashMap<>())
+                        .put(partition.partition(), end - 1);
+                });
+            } catch (RuntimeException e) {
+                consumer.close();
+                throw new IllegalStateException("SSE feed could not read the event topics: " + e.getMessage(), e);
+            }
+            Thread thread = new Thread(() -> runFeed(consumer), "sse-feed");
+            thread.setDaemon(true);
+            thread.start();
+            feedConsumer = consumer;
+        } finally {
+            feedStartLock.unlock();
+        }
+    }
+
+    private void runFeed(Consumer<Object, Object> consumer) {
+        long nextRefresh = System.currentTimeMillis() + PARTITION_REFRESH_MS;
+        try {
+            while (!stopped) {
+                try {
+                    ConsumerRecords<Object, Object> polled = consumer.poll(POLL_TIMEOUT);
+                    Map<String, List<ConsumerRecord<String, String>>> byTopic = new HashMap<>();
+                    for (TopicPartition partition : polled.partitions()) {
+                        List<ConsumerRecord<String, String>> batch = byTopic.computeIfAbsent(partition.topic(), key -> new ArrayList<>());
+                        for (ConsumerRecord<Object, Object> record : polled.records(partition)) {
+                            batch.add(new ConsumerRecord<>(record.topic(), record.partition(), record.offset(),
+                                asString(record.key()), asString(record.value())));
+                        }
+                    }
+                    byTopic.forEach(this::publish);
+                    if (System.currentTimeMillis() >= nextRefresh) {
+                        addNewPartitions(consumer);
+                        nextRefresh = System.currentTimeMillis() + PARTITION_REFRESH_MS;
+                    }
+                } catch (WakeupException e) {
+                    break;
+                } catch (Exception e) {
+                    log.warn("SSE feed poll failed, retrying: {}", e.getMessage());
+                    Thread.sleep(FEED_ERROR_BACKOFF_MS);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            consumer.close();
+        }
+    }
+
+    // Partitions added to a topic after the feed started are read from their beginning
+    private void addNewPartitions(Consumer<Object, Object> consumer) {
+        Set<TopicPartition> assigned = new HashSet<>(consumer.assignment());
+        List<TopicPartition> added = new ArrayList<>();
+        for (String topic : STREAM_TOPICS.values()) {
+            for (TopicPartition partition : partitions(consumer, topic)) {
+                if (!assigned.contains(partition)) {
+                    added.add(partition);
+                }
+            }
+        }
+        if (added.isEmpty()) {
+            return;
+        }
+        assigned.addAll(added);
+        consumer.assign(assigned);
+        consumer.seekToBeginning(added);
+        log.info("SSE feed picked up new partitions {}", added);
+    }
+
+    private void heartbeat() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.enqueue(Frame.HEARTBEAT)));
+    }
+
+    // Replays [resumeFrom + 1, current end) from Kafka, then lets the queued live frames through
+    private void catchUp(Subscriber subscriber, Map<Integer, Long> resumeFrom) {
+        try (Consumer<Object, Object> consumer = createConsumer()) {
+            List<TopicPartition> partitions = partitions(consumer, subscriber.topic);
+            Map<TopicPartition, Long> end = consumer.endOffsets(partitions, METADATA_TIMEOUT);
+            Map<TopicPartition, Long> beginning = consumer.beginningOffsets(partitions, METADATA_TIMEOUT);
+
+            Map<Integer, Long> delivered = subscriber.delivered;
+            long backlog = 0;
+            for (TopicPartition partition : partitions) {
+                long from = resumeFrom.containsKey(partition.partition())
+                    ? resumeFrom.get(partition.partition()) + 1 : end.get(partition);
+                from = Math.max(from, beginning.get(partition));
+                delivered.put(partition.partition(), from - 1);
+                backlog += Math.max(0, end.get(partition) - from);
+            }
+
+            if (backlog > maxCatchUpRecords) {
+                // Too far behind (or the log was truncated): the client should reload full state and go live
+                markDelivered(subscriber, end);
+                subscriber.send(Frame.RESET);
+                return;
+            }
+
+            if (backlog > 0) {
+                consumer.assign(partitions);
+                for (TopicPartition partition : partitions) {
+                    consumer.seek(partition, delivered.get(partition.partition()) + 1);
+                }
+                // Ids advance as send() delivers each batch
+                long remaining = backlog;
+                while (remaining > 0) {
+                    List<ConsumerRecord<String, String>> batch = new ArrayList<>();
+                    for (ConsumerRecord<Object, Object> record : consumer.poll(POLL_TIMEOUT)) {
+                        TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                        if (record.offset() < end.get(partition)) {
+                            batch.add(new ConsumerRecord<>(record.topic(), record.partition(), record.offset(),
+                                asString(record.key()), asString(record.value())));
+                        }
+                    }
+                    if (batch.isEmpty() && caughtUp(consumer, partitions, end)) {
+                        break;
+                    }
+                    remaining -= batch.size();
+                    if (!batch.isEmpty()) {
+                        subscriber.send(Frame.events(batch));
+                    }
+                }
+            }
+            markDelivered(subscriber, end);
+        } catch (Exception e) {
+            log.warn("SSE catch-up for {} failed: {}", subscriber.topic, e.getMessage());
+            subscriber.emitter.completeWithError(e);
+            remove(subscriber);
+            return;
+        }
+        subscriber.catchingUp = false;
+        schedule(subscriber);
+    }
+
+    private boolean caughtUp(Consumer<Object, Object> consumer, List<TopicPartition> partitions, Map<TopicPartition, Long> end) {
+        for (TopicPartition partition : partitions) {
+            if (consumer.position(partition) < end.get(partition)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Everything below the catch-up end counts as delivered; live frames queued meanwhile skip those records
+    private void markDelivered(Subscriber subscriber, Map<TopicPartition, Long> end) {
+        end.forEach((partition, offset) -> subscriber.delivered.merge(partition.partition(), offset - 1, Math::max));
+    }
+
+    private List<TopicPartition> partitions(Consumer<Object, Object> consumer, String topic) {
+        List<TopicPartition> partitions = new ArrayList<>();
+        List<PartitionInfo> infos = consumer.partitionsFor(topic, METADATA_TIMEOUT);
+        if (infos != null) {
+            infos.forEach(info -> partitions.add(new TopicPartition(info.topic(), info.partition())));
+        }
+        return partitions;
+    }
+
+    private Consumer<Object, Object> createConsumer() {
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        return consumerFactory.createConsumer(CATCH_UP_GROUP, null, "-sse", overrides);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        execute(senders, subscriber, () -> drain(subscriber));
+    }
+
+    private void execute(ThreadPoolExecutor executor, Subscriber subscriber, Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            subscriber.emitter.complete();
+            remove(subscriber);
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        if (!subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Frame frame;
+            while (!subscriber.catchingUp && (frame = subscriber.pending.poll()) != null) {
+                subscriber.pendingCount.decrementAndGet();
+                subscriber.send(frame);
+            }
+        } catch (Exception e) {
+            // Client went away; the servlet container reports it through onError/onCompletion as well
+            remove(subscriber);
+        } finally {
+            subscriber.draining.set(false);
+        }
+        if (!subscriber.catchingUp && !subscriber.pending.isEmpty() && !subscriber.closed) {
+            schedule(subscriber);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscriber.closed = true;
+        Set<Subscriber> set = subscribers.get(subscriber.topic);
+        if (set != null) {
+            set.remove(subscriber);
+        }
+    }
+
+    static String formatOffsets(Map<Integer, Long> offsets) {
+        StringJoiner id = new StringJoiner(",");
+        new TreeMap<>(offsets).forEach((partition, offset) -> id.add(partition + ":" + offset));
+        return id.toString();
+    }
+
+    static Map<Integer, Long> parseOffsets(String id) {
+        Map<Integer, Long> offsets = new HashMap<>();
+        try {
+            for (String part : id.split(",")) {
+                if (part.isBlank()) {
+                    continue;
+                }
+                String[] pair = part.split(":");
+                offsets.put(Integer.parseInt(pair[0].trim()), Long.parseLong(pair[1].trim()));
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid Last-Event-ID: " + id);
+        }
+        return offsets;
+    }
+
+    private static String asString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    // Frames carry no id: each subscriber stamps its own offset vector when the frame is sent
+    private static final class Frame {
+        static final Frame HEARTBEAT = new Frame("heartbeat", null);
+        static final Frame READY = new Frame("ready", null);
+        static final Frame RESET = new Frame("reset", null);
+
+        final String name;
+        final List<ConsumerRecord<String, String>> records;
+
+        private Frame(String name, List<ConsumerRecord<String, String>> records) {
+            this.name = name;
+            this.records = records;
+        }
+
+        static Frame events(List<ConsumerRecord<String, String>> records) {
+            return new Frame("events", records);
+        }
+    }
+
+    private final class Subscriber {
+        final String topic;
+        final String entityId;
+        final SseEmitter emitter;
+        final Queue<Frame> pending = new ConcurrentLinkedQueue<>();
+        final AtomicInteger pendingCount = new AtomicInteger();
+        final AtomicBoolean draining = new AtomicBoolean();
+        // partition -> offset of the last record sent (or skipped as already seen); the id of every frame
+        final Map<Integer, Long> delivered = new ConcurrentHashMap<>();
+        volatile boolean catchingUp;
+        volatile boolean closed;
+
+        Subscriber(String topic, String entityId, SseEmitter emitter) {
+            this.topic = topic;
+            this.entityId = entityId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(Frame frame) {
+            if (closed) {
+                return;
+            }
+            if (pendingCount.incrementAndGet() > maxPendingFrames) {
+                // Slow client: drop it rather than buffer; it resumes from its Last-Event-ID
+                emitter.complete();
+                remove(this);
+                return;
+            }
+            pending.add(frame);
+            if (!catchingUp) {
+                schedule(this);
+            }
+        }
+
+        void send(Frame frame) throws IOException {
+            if (frame == Frame.HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+                return;
+            }
+            if (frame.records == null) {
+                emitter.send(SseEmitter.event().id(formatOffsets(delivered)).name(frame.name).data("{}"));
+                return;
+            }
+            StringJoiner data = new StringJoiner(",", "[", "]");
+            int count = 0;
+            boolean advanced = false;
+            for (ConsumerRecord<String, String> record : frame.records) {
+                Long last = delivered.get(record.partition());
+                if (last != null && record.offset() <= last) {
+                    continue;
+                }
+                delivered.put(record.partition(), record.offset());
+                advanced = true;
+                if (entityId != null && !entityId.equals(record.key())) {
+                    continue;
+                }
+                data.add(record.value());
+                count++;
+            }
+            if (!advanced) {
+                return;
+            }
+            // Filtered-out batches still advance the id so a resume does not replay them
+            String id = formatOffsets(delivered);
+            emitter.send(count > 0
+                ? SseEmitter.event().id(id).name(frame.name).data(data.toString())
+                : SseEmitter.event().id(id).comment("skip"));
+        }
+    }
+}
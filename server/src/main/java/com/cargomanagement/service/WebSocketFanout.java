@@ -0,0 +1,160 @@
+package com.cargomanagement.service;
+
+import com.cargomanagement.dto.DomainEvent;
+import com.cargomanagement.util.EntityEvents;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Coalescing stage between the Kafka listeners and the STOMP broker.
+ * Events are merged per entity for websocket.coalesce.window-ms (see {@link EntityEvents#coalesce}); each window
+ * then produces one frame per aggregate destination holding one net event per entity, and one frame per
+ * per-entity destination. A shipment updated fifty times in a window costs subscribers one frame.
+ * Off by default (window-ms 0). Frames are sent from the flusher thread after the listener has returned and its
+ * offsets are committed, so a failed send is only counted and logged: the listener's retry and <topic>.DLT handling
+ * does not apply to coalesced frames.
+ */
+@Service
+public class WebSocketFanout {
+
+    private static final Logger log = LoggerFactory.getLogger(WebSocketFanout.class);
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final long windowMs;
+    private final Counter submittedCounter;
+    private final Counter framesCounter;
+    private final Counter failedCounter;
+    private final ScheduledExecutorService flusher;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Guarded by lock: aggregate destination -> entity id -> net event, and aggregate destination -> per-entity prefix
+    private Map<String, Map<Long, DomainEvent>> pending = new LinkedHashMap<>();
+    private final Map<String, String> entityPrefixes = new HashMap<>();
+
+    public WebSocketFanout(SimpMessagingTemplate messagingTemplate,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${websocket.coalesce.window-ms:0}") long windowMs) {
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.windowMs = windowMs;
+        this.submittedCounter = meterRegistry.counter("websocket.fanout.events.submitted");
+        this.framesCounter = meterRegistry.counter("websocket.fanout.frames.sent");
+        this.failedCounter = meterRegistry.counter("websocket.fanout.frames.failed");
+        if (windowMs > 0) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "websocket-fanout");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.flusher.scheduleWithFixedDelay(this::flush, windowMs, windowMs, TimeUnit.MILLISECONDS);
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    public boolean isCoalescing() {
+        return flusher != null;
+    }
+
+    // entityPrefix (e.g. "/topic/shipments/") is null for destinations without per-entity topics
+    public void submit(String destination, String entityPrefix, List<DomainEvent> events) {
+        lock.lock();
+        try {
+            Map<Long, DomainEvent> byEntity = pending.computeIfAbsent(destination, key -> new LinkedHashMap<>());
+            if (entityPrefix != null) {
+                entityPrefixes.put(destination, entityPrefix);
+            }
+            for (DomainEvent event : events) {
+                byEntity.merge(event.getEntityId(), event, EntityEvents::coalesce);
+            }
+            submittedCounter.increment(events.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void flush() {
+        Map<String, Map<Long, DomainEvent>> window;
+        Map<String, String> prefixes;
+        lock.lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            window = pending;
+            prefixes = new HashMap<>(entityPrefixes);
+            pending = new LinkedHashMap<>();
+        } finally {
+            lock.unlock();
+        }
+        window.forEach((destination, byEntity) -> {
+            send(destination, new ArrayList<>(byEntity.values()), null);
+            String prefix = prefixes.get(destination);
+            if (prefix != null) {
+                byEntity.forEach((entityId, event) -> send(prefix + entityId, List.of(event), headersFor(event.getAttributes())));
+            }
+        });
+    }
+
+    // Set as message headers (evaluated by selectors) and as STOMP native headers (visible to clients)
+    public Map<String, Object> headersFor(Map<String, Object> attributes) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setLeaveMutable(true);
+        if (attributes != null) {
+            attributes.forEach((name, value) -> {
+                accessor.setHeader(name, String.valueOf(value));
+                accessor.setNativeHeader(name, String.valueOf(value));
+            });
+        }
+        return accessor.getMessageHeaders();
+    }
+
+    private void send(String destination, List<DomainEvent> events, Map<String, Object> headers) {
+        try {
+            String frame = objectMapper.writeValueAsString(events);
+            if (headers != null) {
+                messagingTemplate.convertAndSend(destination, frame, headers);
+            } else {
+                messagingTemplate.convertAndSend(destination, frame);
+            }
+            framesCounter.increment();
+        } catch (MessagingException e) {
+            // Outbound queue full or broker stopped: the next window carries newer state anyway
+            failedCounter.increment();
+            log.warn("Dropped frame to {}: {}", destination, e.getMessage());
+        } catch (Exception e) {
+            failedCounter.increment();
+            log.error("Failed to build frame for {}: {}", destination, e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (flusher != null) {
+            flusher.shutdown();
+            flush();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.cargomanagement.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers in-memory side effects (dashboard counters, email queues) until the surrounding transaction commits,
+ * so a change that rolls back, including one that only fails at flush or commit, leaves no trace.
+ * Outside a transaction the action runs immediately.
+ */
+public final class AfterCommit {
+
+    private static final Logger log = LoggerFactory.getLogger(AfterCommit.class);
+
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // The data is already committed; a failing side effect must not turn the response into an error
+                try {
+                    action.run();
+                } catch (RuntimeException e) {
+                    log.error("After-commit action failed: {}", e.getMessage(), e);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,130 @@
+package com.cargomanagement.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 reader that returns one record at a time from a character stream.
+ * Quoted fields may contain commas, doubled quotes and line breaks; blank lines are skipped.
+ * Only the current record is held in memory, and a record longer than maxRecordLength is rejected
+ * so a malformed file (e.g. an unterminated quote) cannot grow the heap. A rejected record is skipped up to the
+ * next line break and reported as a {@link MalformedRecordException}; the following call reads on from there.
+ */
+public final class CsvReader implements Closeable {
+
+    private final Reader reader;
+    private final int maxRecordLength;
+    private int pushedBack = -2;  // -2 = nothing pushed back
+    private boolean started;
+
+    public CsvReader(Reader reader, int maxRecordLength) {
+        this.reader = reader;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    // Next record as a list of fields, or null at end of stream
+    public List<String> readRecord() throws IOException, MalformedRecordException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldWasQuoted = false;
+        int length = 0;
+
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                if (quoted) {
+                    throw new MalformedRecordException("CSV ends inside a quoted field");
+                }
+                if (fields.isEmpty() && field.length() == 0 && !fieldWasQuoted) {
+                    return null;
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+            if (++length > maxRecordLength) {
+                // Inside an unterminated quote the real record end is unknown; the next line is the best guess
+                skipLine();
+                throw new MalformedRecordException("CSV record exceeds " + maxRecordLength
+                        + " characters, skipped to the next line");
+            }
+
+            if (quoted) {
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        unread(next);
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+                fieldWasQuoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldWasQuoted = false;
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        unread(next);
+                    }
+                }
+                if (fields.isEmpty() && field.length() == 0 && !fieldWasQuoted) {
+                    length = 0;  // Blank line
+                    continue;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void skipLine() throws IOException {
+        int c;
+        while ((c = read()) != -1 && c != '\n') {
+            if (c == '\r') {
+                int next = read();
+                if (next != '\n') {
+                    unread(next);
+                }
+                return;
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        int c = reader.read();
+        if (!started) {
+            started = true;
+            if (c == '\uFEFF') {  // Byte order mark written by spreadsheet exports
+                c = reader.read();
+            }
+        }
+        return c;
+    }
+
+    private void unread(int c) {
+        pushedBack = c;
+    }
+}
@@ -0,0 +1,248 @@
+package com.cargomanagement.util;
+
+import com.cargomanagement.dto.DomainEvent;
+import com.cargomanagement.models.ActivityLog;
+import com.cargomanagement.models.Cargo;
+import com.cargomanagement.models.Delivery;
+import com.cargomanagement.models.Route;
+import com.cargomanagement.models.Shipment;
+import com.cargomanagement.models.Vendor;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Builds {@link DomainEvent}s from entities.
+ * Snapshots contain only flat, JSON-friendly values (associations are referenced by id).
+ */
+public final class EntityEvents {
+
+    private EntityEvents() {
+    }
+
+    // Snapshots
+
+    public static Map<String, Object> snapshot(Shipment shipment) {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("origin", shipment.getOrigin());
+        state.put("destination", shipment.getDestination());
+        state.put("status", shipment.getStatus());
+        state.put("estimatedDelivery", shipment.getEstimatedDelivery() != null ? shipment.getEstimatedDelivery().toString() : null);
+        state.put("routeId", shipment.getAssignedRoute() != null ? shipment.getAssignedRoute().getRouteId() : null);
+        state.put("vendorId", shipment.getAssignedVendor() != null ? shipment.getAssignedVendor().getVendorId() : null);
+        state.put("shipmentCode", shipment.getShipmentCode());
+        return state;
+    }
+
+    public static Map<String, Object> snapshot(Cargo cargo) {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("shipmentId", cargo.getShipment() != null ? cargo.getShipment().getShipmentId() : null);
+        state.put("type", cargo.getType());
+        state.put("value", cargo.getValue());
+        state.put("weight", cargo.getWeight());
+        state.put("weightUnit", cargo.getWeightUnit());
+        state.put("volume", cargo.getVolume());
+        state.put("description", cargo.getDescription());
+        return state;
+    }
+
+    public static Map<String, Object> snapshot(Route route) {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("originPort", route.getOriginPort());
+        state.put("destinationPort", route.getDestinationPort());
+        state.put("status", route.getStatus());
+        state.put("duration", route.getDuration());
+        state.put("distance", route.getDistance());
+        state.put("transportationMode", route.getTransportationMode());
+        state.put("cost", route.getCost());
+        return state;
+    }
+
+    public static Map<String, Object> snapshot(Vendor vendor) {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("name", vendor.getName());
+        state.put("contactInfo", vendor.getContactInfo());
+        state.put("serviceType", vendor.getServiceType());
+        state.put("isActive", vendor.getIsActive());
+        return state;
+    }
+
+    public static Map<String, Object> snapshot(Delivery delivery) {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("shipmentId", delivery.getShipment() != null ? delivery.getShipment().getShipmentId() : null);
+        state.put("recipient", delivery.getRecipient());
+        state.put("status", delivery.getStatus());
+        state.put("actualDeliveryDate", delivery.getActualDeliveryDate() != null ? delivery.getActualDeliveryDate().toString() : null);
+        return state;
+    }
+
+    // Every version is epoch millis of the JVM clock: shipments use updatedAt (stamped by Hibernate from that
+    // clock in the default zone), everything else the time the event is built
+
+    public static DomainEvent created(Shipment shipment) {
+        Map<String, Object> state = snapshot(shipment);
+        return withAttributes(DomainEvent.created(ActivityLog.SHIPMENT, shipment.getShipmentId(), version(shipment.getUpdatedAt()), state),
+                              state, "status", "vendorId", "routeId");
+    }
+
+    public static DomainEvent updated(Map<String, Object> before, Shipment shipment) {
+        Map<String, Object> state = snapshot(shipment);
+        return withAttributes(DomainEvent.updated(ActivityLog.SHIPMENT, shipment.getShipmentId(), version(shipment.getUpdatedAt()), before, state),
+                              state, "status", "vendorId", "routeId");
+    }
+
+    public static DomainEvent deleted(Shipment shipment) {
+        Map<String, Object> state = snapshot(shipment);
+        return withAttributes(DomainEvent.deleted(ActivityLog.SHIPMENT, shipment.getShipmentId(),
+                                                    Math.max(now(), version(shipment.getUpdatedAt())), state),
+                              state, "status", "vendorId", "routeId");
+    }
+
+    public static DomainEvent created(Cargo cargo) {
+        return DomainEvent.created(ActivityLog.CARGO, cargo.getCargoId(), now(), snapshot(cargo));
+    }
+
+    public static DomainEvent updated(Map<String, Object> before, Cargo cargo) {
+        return DomainEvent.updated(ActivityLog.CARGO, cargo.getCargoId(), now(), before, snapshot(cargo));
+    }
+
+    public static DomainEvent deleted(Cargo cargo) {
+        return DomainEvent.deleted(ActivityLog.CARGO, cargo.getCargoId(), now(), snapshot(cargo));
+    }
+
+    public static DomainEvent created(Route route) {
+        Map<String, Object> state = snapshot(route);
+        return withAttributes(DomainEvent.created(ActivityLog.ROUTE, route.getRouteId(), now(), state), state, "status");
+    }
+
+    public static DomainEvent updated(Map<String, Object> before, Route route) {
+        Map<String, Object> state = snapshot(route);
+        return withAttributes(DomainEvent.updated(ActivityLog.ROUTE, route.getRouteId(), now(), before, state), state, "status");
+    }
+
+    public static DomainEvent deleted(Route route) {
+        Map<String, Object> state = snapshot(route);
+        return withAttributes(DomainEvent.deleted(ActivityLog.ROUTE, route.getRouteId(), now(), state), state, "status");
+    }
+
+    public static DomainEvent created(Vendor vendor) {
+        return DomainEvent.created(ActivityLog.VENDOR, vendor.getVendorId(), now(), snapshot(vendor));
+    }
+
+    public static DomainEvent updated(Map<String, Object> before, Vendor vendor) {
+        return DomainEvent.updated(ActivityLog.VENDOR, vendor.getVendorId(), now(), before, snapshot(vendor));
+    }
+
+    public static DomainEvent deleted(Vendor vendor) {
+        return DomainEvent.deleted(ActivityLog.VENDOR, vendor.getVendorId(), now(), snapshot(vendor));
+    }
+
+    public static DomainEvent created(Delivery delivery) {
+        return DomainEvent.created(ActivityLog.DELIVERY, delivery.getDeliveryId(), now(), snapshot(delivery));
+    }
+
+    public static DomainEvent updated(Map<String, Object> before, Delivery delivery) {
+        return DomainEvent.updated(ActivityLog.DELIVERY, delivery.getDeliveryId(), now(), before, snapshot(delivery));
+    }
+
+    public static DomainEvent deleted(Delivery delivery) {
+        return DomainEvent.deleted(ActivityLog.DELIVERY, delivery.getDeliveryId(), now(), snapshot(delivery));
+    }
+
+    /**
+     * Splits a BATCH_CREATED summary back into one CREATED event per entity, so per-entity consumers
+     * (projections) handle bulk inserts like single ones. Bulk chunks now publish per-entity CREATED events;
+     * summaries written by earlier versions can still be on the topics when they are replayed. Any other event is
+     * returned as is.
+     */
+    public static List<DomainEvent> expand(DomainEvent event) {
+        if (!DomainEvent.BATCH_CREATED.equals(event.getEventType()) || event.getItems() == null) {
+            return List.of(event);
+        }
+        List<DomainEvent> created = new ArrayList<>(event.getItems().size());
+        for (int i = 0; i < event.getItems().size(); i++) {
+            Map<String, Object> state = new LinkedHashMap<>(event.getItems().get(i));
+            Object id = state.remove("id");
+            if (!(id instanceof Number)) {
+                continue;
+            }
+            DomainEvent item = DomainEvent.created(event.getEntityType(), ((Number) id).longValue(), event.getVersion(), state);
+            item.setEventId(event.getEventId() + ":" + i);
+            item.setTimestamp(event.getTimestamp());
+            created.add(item);
+        }
+        return created;
+    }
+
+    /**
+     * Collapses two consecutive events of the same entity into one carrying the net change:
+     * the newest values and, per field, the oldest previous value. A delete supersedes everything before it.
+     */
+    public static DomainEvent coalesce(DomainEvent older, DomainEvent newer) {
+        if (DomainEvent.DELETED.equals(newer.getEventType()) || DomainEvent.DELETED.equals(older.getEventType())) {
+            return newer;
+        }
+        boolean created = DomainEvent.CREATED.equals(older.getEventType());
+
+        Map<String, Object> changed = new LinkedHashMap<>();
+        if (older.getChangedFields() != null) {
+            changed.putAll(older.getChangedFields());
+        }
+        if (newer.getChangedFields() != null) {
+            changed.putAll(newer.getChangedFields());
+        }
+        Map<String, Object> previous = new LinkedHashMap<>();
+        if (!created) {
+            if (newer.getPreviousValues() != null) {
+                previous.putAll(newer.getPreviousValues());
+            }
+            if (older.getPreviousValues() != null) {
+                previous.putAll(older.getPreviousValues());
+            }
+            // Fields that changed and changed back are not a change
+            previous.entrySet().removeIf(entry -> {
+                boolean unchanged = changed.containsKey(entry.getKey()) && Objects.equals(changed.get(entry.getKey()), entry.getValue());
+                if (unchanged) {
+                    changed.remove(entry.getKey());
+                }
+                return unchanged;
+            });
+        }
+
+        DomainEvent merged = new DomainEvent();
+        merged.setEventId(newer.getEventId());
+        merged.setEventType(created ? DomainEvent.CREATED : DomainEvent.UPDATED);
+        merged.setEntityType(newer.getEntityType());
+        merged.setEntityId(newer.getEntityId());
+        merged.setVersion(newer.getVersion());
+        merged.setTimestamp(newer.getTimestamp());
+        merged.setChangedFields(changed);
+        merged.setPreviousValues(created ? null : previous);
+        merged.setAttributes(newer.getAttributes() != null ? newer.getAttributes() : older.getAttributes());
+        return merged;
+    }
+
+    private static DomainEvent withAttributes(DomainEvent event, Map<String, Object> state, String... fields) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        for (String field : fields) {
+            if (state.get(field) != null) {
+                attributes.put(field, state.get(field));
+            }
+        }
+        event.setAttributes(attributes);
+        return event;
+    }
+
+    private static long version(LocalDateTime updatedAt) {
+        return updatedAt != null ? updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : now();
+    }
+
+    private static long now() {
+        return System.currentTimeMillis();
+    }
+}
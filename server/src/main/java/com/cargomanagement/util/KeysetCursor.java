@@ -0,0 +1,45 @@
+package com.cargomanagement.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for (timestamp, id) ordered pagination.
+ * Encodes the sort key of the last row on a page as URL-safe Base64.
+ */
+public final class KeysetCursor {
+
+    private final LocalDateTime timestamp;
+    private final Long id;
+
+    private KeysetCursor(LocalDateTime timestamp, Long id) {
+        this.timestamp = timestamp;
+        this.id = id;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public static String encode(LocalDateTime timestamp, Long id) {
+        String raw = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            LocalDateTime timestamp = LocalDateTime.parse(raw.substring(0, separator));
+            Long id = Long.valueOf(raw.substring(separator + 1));
+            return new KeysetCursor(timestamp, id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.cargomanagement.util;
+
+/**
+ * One record of an import stream could not be parsed. The reader has already skipped past it, so the caller
+ * counts the record as rejected and keeps reading.
+ */
+public class MalformedRecordException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    public MalformedRecordException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,117 @@
+package com.cargomanagement.config;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load benchmark for spring.threads.virtual.enabled over the real request path: HTTP into the embedded Tomcat,
+ * Spring MVC, the JPA delivery page query on the Hikari pool and JSON serialization. Requests are kept
+ * benchmark.concurrency in flight, above Tomcat's 200 worker threads, and throughput and p99 latency are logged.
+ * Nothing is asserted about timing; the numbers are recorded in docs/non-functional-reqs.md.
+ *
+ * Runs only under the benchmark profile, once per mode:
+ *   mvn -Pbenchmark test -Dtest=VirtualThreadLoadBenchmark
+ *   mvn -Pbenchmark test -Dtest=VirtualThreadLoadBenchmark -Dspring.threads.virtual.enabled=true   (Java 21+ runtime)
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.mail.host=localhost",
+    "spring.security.oauth2.client.registration.google.client-id=benchmark",
+    "spring.security.oauth2.client.registration.google.client-secret=benchmark",
+    "spring.kafka.listener.auto-startup=false",
+    "spring.datasource.hikari.maximum-pool-size=20"
+})
+class VirtualThreadLoadBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadLoadBenchmark.class);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 400);
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 10_000);
+    private static final int DELIVERIES = 500;
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private WorkerThreadFactory workerThreadFactory;
+
+    @Test
+    void deliveryPageUnderConcurrentLoad() throws InterruptedException {
+        seed();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/deliveries?page=0&size=50"))
+            .build();
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(16);
+        try {
+            HttpClient client = HttpClient.newBuilder().executor(clientExecutor).build();
+            run(client, request, REQUESTS / 5);  // Warm-up
+            long[] latencies = new long[REQUESTS];
+            long start = System.nanoTime();
+            int failures = run(client, request, latencies);
+            long elapsed = System.nanoTime() - start;
+
+            Arrays.sort(latencies);
+            log.info("{} threads, Java {}: {} requests, {} in flight, {} req/s, p50 {} ms, p99 {} ms",
+                     workerThreadFactory.isVirtual() ? "Virtual" : "Platform", Runtime.version().feature(),
+                     REQUESTS, CONCURRENCY, Math.round(REQUESTS * 1e9 / elapsed),
+                     TimeUnit.NANOSECONDS.toMillis(latencies[REQUESTS / 2]),
+                     TimeUnit.NANOSECONDS.toMillis(latencies[(int) Math.ceil(REQUESTS * 0.99) - 1]));
+            assertThat(failures).isZero();
+        } finally {
+            clientExecutor.shutdownNow();
+        }
+    }
+
+    private void run(HttpClient client, HttpRequest request, int requests) throws InterruptedException {
+        run(client, request, new long[requests]);
+    }
+
+    // Sends latencies.length requests with CONCURRENCY in flight; returns the number that did not answer 200
+    private int run(HttpClient client, HttpRequest request, long[] latencies) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        CountDownLatch done = new CountDownLatch(latencies.length);
+        AtomicInteger failures = new AtomicInteger();
+        for (int i = 0; i < latencies.length; i++) {
+            int index = i;
+            inFlight.acquire();
+            long sent = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                latencies[index] = System.nanoTime() - sent;
+                if (error != null || response.statusCode() != 200) {
+                    failures.incrementAndGet();
+                }
+                inFlight.release();
+                done.countDown();
+            });
+        }
+        assertThat(done.await(10, TimeUnit.MINUTES)).isTrue();
+        return failures.get();
+    }
+
+    // Delivered shipments with one delivery each, so every page request hydrates a full page of 50
+    private void seed() {
+        jdbcTemplate.update(
+            "INSERT INTO shipment (shipment_id, origin, destination, status, created_at, updated_at) " +
+            "SELECT r.\"X\", 'Mumbai', 'Rotterdam', 'Delivered', NOW(), NOW() FROM SYSTEM_RANGE(1, ?) r", DELIVERIES);
+        jdbcTemplate.update(
+            "INSERT INTO deliveries (delivery_id, shipment_id, recipient, status, created_at) " +
+            "SELECT r.\"X\", r.\"X\", 'Receiver', 'Delivered', NOW() FROM SYSTEM_RANGE(1, ?) r", DELIVERIES);
+    }
+}
@@ -0,0 +1,115 @@
+package com.cargomanagement.repository;
+
+import com.cargomanagement.support.SqlRecorder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Regression check for the delivery lookups on the shipment update and delete paths. They must stay indexed point
+ * reads: one statement each, no entity hydration, and an H2 plan that probes an index on deliveries.shipment_id
+ * rather than scanning or joining shipment. H2 may pick its own foreign key index over idx_deliveries_shipment_id;
+ * either is an indexed lookup. Latency at both table sizes is logged only.
+ * -Dbenchmark.deliveries=1000000 runs the large tier at a million rows.
+ */
+@DataJpaTest(showSql = false, properties =
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.cargomanagement.support.SqlRecorder")
+class DeliveryLookupScalingTest {
+
+    private static final Logger log = LoggerFactory.getLogger(DeliveryLookupScalingTest.class);
+    private static final int SMALL = 1_000;
+    private static final int LARGE = Integer.getInteger("benchmark.deliveries", 50_000);
+    private static final int SAMPLES = 500;
+    // H2 prints the index it uses as a comment under the table, e.g. /* public.CONSTRAINT_INDEX_4: shipment_id = 500 */
+    private static final Pattern INDEX_PROBE = Pattern.compile("/\\* public\\.\\w+: shipment_id = ");
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    @Test
+    void lookupsStayPointReadsAsDeliveriesGrow() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        seed(1, SMALL);
+        lookups(SMALL);  // Warm-up
+        long smallNanos = lookups(SMALL);
+
+        seed(SMALL + 1, LARGE);
+        statistics.clear();
+        long largeNanos = lookups(LARGE);
+
+        // existsBy, findIds and the bulk delete: one statement each, nothing hydrated
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3L * SAMPLES);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        log.info("Median delivery lookup round: {} us at {} deliveries, {} us at {}",
+                 smallNanos / 1000, SMALL, largeNanos / 1000, LARGE);
+    }
+
+    @Test
+    void lookupsProbeTheShipmentIdIndex() {
+        seed(1, SMALL);
+        long shipmentId = SMALL / 2;
+
+        SqlRecorder.reset();
+        deliveryRepository.existsByShipmentShipmentId(shipmentId);
+        deliveryRepository.findIdsByShipmentId(shipmentId);
+        deliveryRepository.deleteByShipmentId(shipmentId);
+
+        List<String> statements = SqlRecorder.statements();
+        assertThat(statements).hasSize(3);
+        for (String sql : statements) {
+            String plan = explain(sql.replace("?", Long.toString(shipmentId)));
+            log.info("Plan for {}: {}", sql, plan);
+            assertThat(plan).as(sql).containsPattern(INDEX_PROBE)
+                .doesNotContainIgnoringCase("tableScan").doesNotContainIgnoringCase("join");
+        }
+    }
+
+    private String explain(String sql) {
+        return String.valueOf(entityManager.createNativeQuery("EXPLAIN " + sql).getSingleResult());
+    }
+
+    // One shipment and one delivery per id in [from, to], inserted set-based so large tiers seed quickly
+    private void seed(int from, int to) {
+        entityManager.createNativeQuery(
+            "INSERT INTO shipment (shipment_id, origin, destination, status, created_at, updated_at) " +
+            "SELECT r.\"X\", 'Mumbai', 'Rotterdam', 'Delivered', NOW(), NOW() FROM SYSTEM_RANGE(:from, :to) r")
+            .setParameter("from", from).setParameter("to", to).executeUpdate();
+        entityManager.createNativeQuery(
+            "INSERT INTO deliveries (delivery_id, shipment_id, recipient, status, created_at) " +
+            "SELECT r.\"X\", r.\"X\", 'Receiver', 'Delivered', NOW() FROM SYSTEM_RANGE(:from, :to) r")
+            .setParameter("from", from).setParameter("to", to).executeUpdate();
+    }
+
+    // Median time of one update-path check plus one delete-path lookup and delete, for random shipments
+    private long lookups(int size) {
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long shipmentId = ThreadLocalRandom.current().nextLong(1, size + 1);
+            long start = System.nanoTime();
+            deliveryRepository.existsByShipmentShipmentId(shipmentId);
+            deliveryRepository.findIdsByShipmentId(shipmentId);
+            deliveryRepository.deleteByShipmentId(shipmentId);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+}
@@ -0,0 +1,173 @@
+package com.cargomanagement.repository;
+
+import com.cargomanagement.config.JpaBatchingConfig;
+import com.cargomanagement.models.ActivityLog;
+import com.cargomanagement.models.Cargo;
+import com.cargomanagement.models.Delivery;
+import com.cargomanagement.models.Route;
+import com.cargomanagement.models.Shipment;
+import com.cargomanagement.models.Vendor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prepared-statement budget of the queries behind the list endpoints. Each result is serialized with Jackson the
+ * way the controllers return it, so a lazy association touched by the JSON shows up as extra statements (N+1).
+ */
+@DataJpaTest(showSql = false)
+@Import(JpaBatchingConfig.class)
+class ListQueryStatementCountTest {
+
+    private static final int SHIPMENTS = 30;
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ShipmentRepository shipmentRepository;
+    @Autowired
+    private CargoRepository cargoRepository;
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+    @Autowired
+    private RouteRepository routeRepository;
+    @Autowired
+    private VendorRepository vendorRepository;
+    @Autowired
+    private ActivityLogRepository activityLogRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private Statistics statistics;
+    private Long routeId;
+    private Long vendorId;
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (int r = 0; r < 3; r++) {
+            Route route = new Route();
+            route.setOriginPort("Port " + r);
+            route.setDestinationPort("Port " + (r + 1));
+            route.setDuration(5 + r);
+            entityManager.persist(route);
+            routeId = route.getRouteId();
+
+            Vendor vendor = new Vendor();
+            vendor.setName("Vendor " + r);
+            vendor.setServiceType("Shipping");
+            entityManager.persist(vendor);
+            vendorId = vendor.getVendorId();
+
+            for (int i = 0; i < SHIPMENTS / 3; i++) {
+                Shipment shipment = new Shipment();
+                shipment.setOrigin("Mumbai");
+                shipment.setDestination("Rotterdam");
+                shipment.setStatus(i % 2 == 0 ? "Delivered" : "In Transit");
+                shipment.setAssignedRoute(route);
+                shipment.setAssignedVendor(vendor);
+                entityManager.persist(shipment);
+
+                for (int c = 0; c < 2; c++) {
+                    Cargo cargo = new Cargo();
+                    cargo.setShipment(shipment);
+                    cargo.setType("Container");
+                    cargo.setValue(BigDecimal.valueOf(1000 + c));
+                    entityManager.persist(cargo);
+                }
+                if ("Delivered".equals(shipment.getStatus())) {
+                    Delivery delivery = new Delivery();
+                    delivery.setShipment(shipment);
+                    delivery.setRecipient("Receiver " + i);
+                    delivery.setStatus("Delivered");
+                    entityManager.persist(delivery);
+                }
+
+                ActivityLog entry = new ActivityLog();
+                entry.setEntityType(ActivityLog.SHIPMENT);
+                entry.setEntityId(shipment.getShipmentId());
+                entry.setAction(ActivityLog.CREATED);
+                entry.setStatus(shipment.getStatus());
+                entry.setOccurredAt(LocalDateTime.now());
+                entityManager.persist(entry);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void cargoListIsOneStatement() {
+        assertThat(statementsFor(() -> cargoRepository.findAllListItems())).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void shipmentListIsOneStatement() {
+        assertThat(statementsFor(() -> shipmentRepository.findAllWithDetails())).isEqualTo(1);
+    }
+
+    @Test
+    void shipmentPageIsOneStatement() {
+        assertThat(statementsFor(() -> shipmentRepository.findPage(null, null, null, null, null, null, null, 11)))
+            .isEqualTo(1);
+
+        List<Shipment> first = shipmentRepository.findPage("Delivered", "Mumbai", null, routeId, vendorId, null, null, 3);
+        Shipment last = first.get(first.size() - 1);
+        entityManager.clear();
+        assertThat(statementsFor(() -> shipmentRepository.findPage("Delivered", "Mumbai", "Rotterdam", routeId, vendorId,
+                                                                   last.getCreatedAt(), last.getShipmentId(), 3)))
+            .isEqualTo(1);
+    }
+
+    @Test
+    void deliveryPageIsOneStatement() {
+        assertThat(statementsFor(() -> {
+            Slice<Delivery> slice = deliveryRepository.findSliceByShipmentStatus("Delivered", PageRequest.of(0, 50));
+            return slice.getContent();
+        })).isEqualTo(1);
+    }
+
+    @Test
+    void routeAndVendorListsAreOneStatementEach() {
+        assertThat(statementsFor(() -> routeRepository.findAll())).isEqualTo(1);
+        assertThat(statementsFor(() -> vendorRepository.findAll())).isEqualTo(1);
+    }
+
+    @Test
+    void recentActivitiesIsOneStatement() {
+        assertThat(statementsFor(() -> activityLogRepository.findNewest(PageRequest.of(0, 11)))).isEqualTo(1);
+        assertThat(statementsFor(() -> activityLogRepository.findNewestBefore(LocalDateTime.now(), Long.MAX_VALUE,
+                                                                              PageRequest.of(0, 11))))
+            .isEqualTo(1);
+    }
+
+    // Statements prepared while loading and serializing the response body, starting from an empty persistence context
+    private long statementsFor(Supplier<Object> endpoint) {
+        entityManager.clear();
+        statistics.clear();
+        try {
+            objectMapper.writeValueAsString(endpoint.get());
+        } catch (Exception e) {
+            throw new AssertionError("Serialization failed: " + e.getMessage(), e);
+        }
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,65 @@
+package com.cargomanagement.service;
+
+import com.cargomanagement.dto.DomainEvent;
+import com.cargomanagement.models.ActivityLog;
+import com.cargomanagement.models.ActivityLogRebuild;
+import com.cargomanagement.repository.ActivityLogRebuildRepository;
+import com.cargomanagement.repository.ActivityLogRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A replay resumed from its checkpoint must render update events exactly as an uninterrupted replay would, so the
+ * state of entities created before the interruption has to come back from the shadow table.
+ */
+class ActivityFeedProjectionTest {
+
+    private final ActivityLogRebuildRepository rebuildRepository = mock(ActivityLogRebuildRepository.class);
+    private final List<ActivityLogRebuild> shadow = new ArrayList<>();
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void resumedReplayKeepsTheStateOfEntitiesSeenBeforeTheInterruption() {
+        when(rebuildRepository.saveAll(any())).thenAnswer(invocation -> {
+            ((Iterable<ActivityLogRebuild>) invocation.getArgument(0)).forEach(shadow::add);
+            return invocation.getArgument(0);
+        });
+        ActivityFeedProjection interrupted = projection();
+        interrupted.beginReplay(false);
+        interrupted.apply("shipment-events", List.of(
+            DomainEvent.created(ActivityLog.SHIPMENT, 1L, 1, Map.of("origin", "Rotterdam", "destination", "Oslo", "status", "Pending")),
+            DomainEvent.created(ActivityLog.SHIPMENT, 2L, 1, Map.of("origin", "Hamburg", "destination", "Riga", "status", "Pending")),
+            DomainEvent.deleted(ActivityLog.SHIPMENT, 2L, 2, Map.of("origin", "Hamburg", "destination", "Riga", "status", "Pending"))));
+        interrupted.endReplay(false);
+        when(rebuildRepository.findLatestPerEntity()).thenReturn(List.of(shadow.get(0), shadow.get(2)));
+
+        ActivityFeedProjection resumed = projection();
+        resumed.beginReplay(true);
+        resumed.apply("shipment-events", List.of(
+            DomainEvent.updated(ActivityLog.SHIPMENT, 1L, 3, Map.of("status", "Pending"), Map.of("status", "In Transit"))));
+
+        // Only the fresh start cleared the shadow table
+        verify(rebuildRepository, times(1)).deleteAllInBatch();
+        ActivityLogRebuild update = shadow.get(3);
+        assertThat(update.getStatus()).isEqualTo("In Transit");
+        assertThat(update.getDetails()).isEqualTo("Rotterdam → Oslo");
+        assertThat(shadow.get(2).getState()).isNull();
+    }
+
+    private ActivityFeedProjection projection() {
+        return new ActivityFeedProjection(mock(ActivityLogRepository.class), rebuildRepository,
+                                          mock(TransactionTemplate.class), new ObjectMapper());
+    }
+}
@@ -0,0 +1,97 @@
+package com.cargomanagement.service;
+
+import com.cargomanagement.config.JpaBatchingConfig;
+import com.cargomanagement.dto.BulkResult;
+import com.cargomanagement.dto.CargoCreateRequest;
+import com.cargomanagement.repository.CargoRepository;
+import com.cargomanagement.support.JdbcBatchCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bulk cargo creation goes out as JDBC batches: with pooled sequence ids and hibernate.jdbc.batch_size=50 the
+ * inserts of a chunk are sent in batches of 50 instead of one round trip per row.
+ * Doubles as a benchmark: -Dbenchmark.rows=100000 runs the 100k-row case and logs the throughput.
+ */
+@DataJpaTest(showSql = false, properties = {
+    "spring.jpa.properties.hibernate.session.events.auto=com.cargomanagement.support.JdbcBatchCounter",
+    "bulk.chunk-size=500",
+    "bulk.max-items=1000000"
+})
+@Import({JpaBatchingConfig.class, BulkCreateService.class})
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)  // Each chunk commits in its own transaction, as in production
+class BulkCreateBatchingTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkCreateBatchingTest.class);
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 2_000);
+    private static final int JDBC_BATCH_SIZE = 50;
+
+    @Autowired
+    private BulkCreateService bulkCreateService;
+    @Autowired
+    private CargoRepository cargoRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private KafkaProducerService kafkaProducerService;
+    @MockBean
+    private NotificationService notificationService;
+    @MockBean
+    private DashboardMetricsService dashboardMetricsService;
+    @MockBean
+    private ActivityLogService activityLogService;
+
+    @AfterEach
+    void cleanUp() {
+        cargoRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void cargoInsertsAreSentAsJdbcBatches() {
+        List<CargoCreateRequest> requests = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            CargoCreateRequest request = new CargoCreateRequest();
+            request.setType("Container");
+            request.setValue(BigDecimal.valueOf(1000 + i));
+            request.setWeight(BigDecimal.valueOf(20));
+            request.setWeightUnit("t");
+            requests.add(request);
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        JdbcBatchCounter.reset();
+
+        long start = System.nanoTime();
+        BulkResult result = bulkCreateService.createCargo(requests);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(result.getCreated()).isEqualTo(ROWS);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ROWS);
+        // One batch per 50 rows, and no per-row statements besides one sequence call per 50 ids
+        assertThat(JdbcBatchCounter.batches()).isEqualTo((ROWS + JDBC_BATCH_SIZE - 1) / JDBC_BATCH_SIZE);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2L * ROWS / JDBC_BATCH_SIZE + 2);
+        log.info("Bulk-created {} cargo rows in {} ms ({} JDBC batches, {} statements prepared)",
+                 ROWS, elapsedMs, JdbcBatchCounter.batches(), statistics.getPrepareStatementCount());
+    }
+}
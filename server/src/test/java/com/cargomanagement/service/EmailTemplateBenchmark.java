@@ -0,0 +1,126 @@
+package com.cargomanagement.service;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * JMH comparison of the precompiled shipment-created email against the String.format builder it replaced. The
+ * baseline formats the same template text with every {{placeholder}} turned into %s, which is what the old builder
+ * did over its inline text block. Runs in a forked JVM under the benchmark profile and only logs the scores:
+ *   mvn -Pbenchmark test -Dtest=EmailTemplateBenchmark [-Dbenchmark.iterations=10]
+ * Rendering correctness is covered by EmailTemplateEngineTest.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EmailTemplateBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailTemplateBenchmark.class);
+    private static final String TEMPLATE = "shipment-created";
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{\\s*(\\w+)\\s*}}");
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 3);
+
+    private EmailTemplateEngine engine;
+    private String formatPattern;
+    private Object[] formatArgs;
+    private Map<String, String> values;
+
+    @Setup
+    public void setUp() throws IOException {
+        engine = new EmailTemplateEngine();
+        values = sampleValues();
+
+        String source;
+        try (InputStream in = new ClassPathResource("templates/email/" + TEMPLATE + ".html").getInputStream()) {
+            source = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        StringBuilder pattern = new StringBuilder();
+        List<Object> args = new ArrayList<>();
+        Matcher matcher = PLACEHOLDER.matcher(source);
+        int position = 0;
+        while (matcher.find()) {
+            pattern.append(escapePercents(source.substring(position, matcher.start()))).append("%s");
+            args.add(values.get(matcher.group(1)));
+            position = matcher.end();
+        }
+        pattern.append(escapePercents(source.substring(position)));
+        formatPattern = pattern.toString();
+        formatArgs = args.toArray();
+    }
+
+    @Benchmark
+    public String precompiledTemplate() {
+        return engine.render(TEMPLATE, values);
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        return String.format(formatPattern, formatArgs);
+    }
+
+    @Test
+    void compareWithStringFormat() throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(EmailTemplateBenchmark.class.getName() + "\\.")
+            .forks(1)
+            .warmupIterations(ITERATIONS)
+            .warmupTime(TimeValue.milliseconds(200))
+            .measurementIterations(ITERATIONS)
+            .measurementTime(TimeValue.milliseconds(200))
+            .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        for (RunResult result : results) {
+            String label = result.getParams().getBenchmark();
+            log.info("{}: {} {}", label.substring(label.lastIndexOf('.') + 1),
+                     String.format("%.2f +/- %.2f", result.getPrimaryResult().getScore(), result.getPrimaryResult().getScoreError()),
+                     result.getPrimaryResult().getScoreUnit());
+        }
+    }
+
+    // Values without HTML metacharacters, so escaping does not change the output
+    private static Map<String, String> sampleValues() {
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("shipmentId", "SH042");
+        values.put("shipmentCode", "SHP-2026-0042");
+        values.put("origin", "Mumbai");
+        values.put("destination", "Rotterdam");
+        values.put("status", "In Transit");
+        values.put("estimatedDelivery", "Nov 04, 2026");
+        values.put("routeName", "Nhava Sheva → Rotterdam");
+        values.put("vendorName", "Maersk Line");
+        return values;
+    }
+
+    // Literal % in the template (CSS widths) must not be read as a format specifier
+    private static String escapePercents(String literal) {
+        return literal.replace("%", "%%");
+    }
+}
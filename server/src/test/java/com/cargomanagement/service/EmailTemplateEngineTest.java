@@ -0,0 +1,75 @@
+package com.cargomanagement.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks rendered emails against the template sources: every placeholder is replaced by its HTML-escaped value and
+ * the literal text around it is kept byte for byte. Performance is measured separately by EmailTemplateBenchmark.
+ */
+class EmailTemplateEngineTest {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{\\s*(\\w+)\\s*}}");
+
+    private final EmailTemplateEngine engine = new EmailTemplateEngine();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"shipment-created", "shipment-updated", "shipment-deleted"})
+    void rendersEveryPlaceholderIntoTheTemplateText(String template) throws IOException {
+        String source = source(template);
+        Map<String, String> values = new LinkedHashMap<>();
+        Matcher matcher = PLACEHOLDER.matcher(source);
+        while (matcher.find()) {
+            values.put(matcher.group(1), "value-of-" + matcher.group(1));
+        }
+        assertThat(values).isNotEmpty();
+
+        String rendered = engine.render(template, values);
+
+        assertThat(rendered).isEqualTo(matcher.replaceAll(match -> "value-of-" + match.group(1)));
+        assertThat(rendered).doesNotContain("{{").doesNotContain("}}");
+        assertThat(rendered).contains(values.values());
+    }
+
+    @Test
+    void escapesHtmlInValues() {
+        Map<String, String> values = Map.of("shipmentCode", "<b>\"O'Neil\" & Sons</b>");
+
+        assertThat(engine.render("shipment-deleted", values))
+            .contains("&lt;b&gt;&quot;O&#39;Neil&quot; &amp; Sons&lt;/b&gt;")
+            .doesNotContain("<b>");
+    }
+
+    @Test
+    void missingValuesRenderEmpty() throws IOException {
+        String rendered = engine.render("shipment-deleted", Map.of());
+
+        assertThat(rendered).isEqualTo(PLACEHOLDER.matcher(source("shipment-deleted")).replaceAll(""));
+    }
+
+    @Test
+    void rejectsUnknownTemplate() {
+        assertThatThrownBy(() -> engine.render("shipment-archived", Map.of()))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("shipment-archived");
+    }
+
+    private static String source(String template) throws IOException {
+        try (InputStream in = new ClassPathResource("templates/email/" + template + ".html").getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
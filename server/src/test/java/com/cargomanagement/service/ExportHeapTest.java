@@ -0,0 +1,251 @@
+package com.cargomanagement.service;
+
+import com.cargomanagement.support.HeapSampler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Constant-heap check for the streaming export. The cargo query is answered by a generated forward-only result set
+ * (an in-memory database would itself fill the heap being measured) and the output is counted, not kept. Streaming
+ * is pinned down exactly: no write to the client is larger than the export's 64 KB buffer, by the time the cursor is
+ * exhausted everything but that last buffer has already been written, and rows are not flushed one by one. The
+ * retained heap, sampled every 256 KB written, is logged and checked with a wide margin for 10k and 200k rows in
+ * both formats. The fake connection also records how the export drives it: the query must run inside a transaction
+ * (autocommit off, so the PostgreSQL driver uses a cursor) with a statement timeout, and export.max-concurrent must
+ * be enforced before a connection is taken. -Dbenchmark.export-rows raises the large run.
+ */
+class ExportHeapTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportHeapTest.class);
+    private static final int SMALL = 10_000;
+    private static final int LARGE = Integer.getInteger("benchmark.export-rows", 200_000);
+    private static final int FETCH_SIZE = 1_000;
+    private static final long ALLOWED_GROWTH = 16L * 1024 * 1024;
+    private static final int WRITER_BUFFER = 64 * 1024;  // ExportService's BufferedWriter; the output is ASCII
+    private static final String[] COLUMNS = {
+        "cargoId", "shipmentId", "type", "value", "weight", "weightUnit", "volume", "description", "createdAt"
+    };
+
+    private int appliedFetchSize;
+    private int appliedQueryTimeout;
+    private Boolean autoCommitAtQuery;
+    private final AtomicInteger connectionsTaken = new AtomicInteger();
+    private volatile Runnable onQuery = () -> { };
+    private SamplingOutputStream output;
+
+    @Test
+    void csvExportHeapStaysFlatAsTheTableGrows() throws IOException {
+        assertFlat(ExportService.CSV, 1);
+    }
+
+    @Test
+    void ndjsonExportHeapStaysFlatAsTheTableGrows() throws IOException {
+        assertFlat(ExportService.NDJSON, 0);
+    }
+
+    private void assertFlat(String format, int headerLines) throws IOException {
+        SamplingOutputStream small = export(format, SMALL);
+        SamplingOutputStream large = export(format, LARGE);
+
+        assertThat(small.lines).isEqualTo(SMALL + headerLines);
+        assertThat(large.lines).isEqualTo(LARGE + headerLines);
+        assertThat(appliedFetchSize).isEqualTo(FETCH_SIZE);
+        assertThat(autoCommitAtQuery).isFalse();
+        assertThat(appliedQueryTimeout).isEqualTo(60);
+        assertThat(large.maxWrite).isLessThanOrEqualTo(WRITER_BUFFER);
+        assertThat(large.written - large.writtenAtCursorEnd).isLessThanOrEqualTo(WRITER_BUFFER);
+        assertThat(large.writes).isLessThan(LARGE / 10);
+        log.info("{} export: {} writes of at most {} bytes; peak retained heap {} KB for {} rows, {} KB for {}",
+                 format, large.writes, large.maxWrite, small.heap.peak() / 1024, SMALL, large.heap.peak() / 1024, LARGE);
+        assertThat(large.heap.peak() - small.heap.peak()).isLessThan(ALLOWED_GROWTH);
+    }
+
+    @Test
+    void exportsBeyondTheLimitAreTurnedAwayBeforeTakingAConnection() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        onQuery = () -> {
+            running.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        ExportService service = service(dataSource(10), 1);
+        CompletableFuture<Long> first = CompletableFuture.supplyAsync(() -> {
+            try {
+                return service.export("cargo", ExportService.CSV, OutputStream.nullOutputStream());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        assertThat(running.await(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> service.export("cargo", ExportService.CSV, OutputStream.nullOutputStream()))
+            .isInstanceOf(ExportService.TooManyExportsException.class);
+        assertThat(connectionsTaken).hasValue(1);
+
+        release.countDown();
+        assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo(10);
+        assertThat(service.export("cargo", ExportService.CSV, OutputStream.nullOutputStream())).isEqualTo(10);
+    }
+
+    private SamplingOutputStream export(String format, int rows) throws IOException {
+        output = new SamplingOutputStream();
+        assertThat(service(dataSource(rows), 4).export("cargo", format, output)).isEqualTo(rows);
+        return output;
+    }
+
+    private static ExportService service(DataSource dataSource, int maxConcurrent) {
+        return new ExportService(dataSource, new ObjectMapper().findAndRegisterModules(), FETCH_SIZE, maxConcurrent, 60_000);
+    }
+
+    // DataSource -> Connection -> Statement -> ResultSet, answering what the transaction manager and JdbcTemplate call;
+    // each query gets a fresh result set
+    private DataSource dataSource(int rows) {
+        ResultSetMetaData metaData = proxy(ResultSetMetaData.class, (method, args) -> switch (method) {
+            case "getColumnCount" -> COLUMNS.length;
+            case "getColumnLabel", "getColumnName" -> COLUMNS[(Integer) args[0] - 1];
+            default -> null;
+        });
+        boolean[] autoCommit = {true};
+        Statement statement = proxy(Statement.class, (method, args) -> switch (method) {
+            case "executeQuery" -> {
+                autoCommitAtQuery = autoCommit[0];
+                onQuery.run();
+                int[] row = {0};
+                yield proxy(ResultSet.class, (rsMethod, rsArgs) -> switch (rsMethod) {
+                    case "next" -> {
+                        if (++row[0] <= rows) {
+                            yield true;
+                        }
+                        if (output != null) {
+                            output.writtenAtCursorEnd = output.written;
+                        }
+                        yield false;
+                    }
+                    case "getMetaData" -> metaData;
+                    case "getObject" -> cell(row[0], (Integer) rsArgs[0]);
+                    default -> null;
+                });
+            }
+            case "setFetchSize" -> {
+                appliedFetchSize = (Integer) args[0];
+                yield null;
+            }
+            case "setQueryTimeout" -> {
+                appliedQueryTimeout = (Integer) args[0];
+                yield null;
+            }
+            default -> null;
+        });
+        Connection connection = proxy(Connection.class, (method, args) -> switch (method) {
+            case "createStatement" -> statement;
+            case "getAutoCommit" -> autoCommit[0];
+            case "setAutoCommit" -> {
+                autoCommit[0] = (Boolean) args[0];
+                yield null;
+            }
+            default -> null;
+        });
+        return proxy(DataSource.class, (method, args) -> {
+            if (!"getConnection".equals(method)) {
+                return null;
+            }
+            connectionsTaken.incrementAndGet();
+            return connection;
+        });
+    }
+
+    private static Object cell(int row, int column) {
+        return switch (column) {
+            case 1 -> (long) row;
+            case 2 -> (long) (row % 5_000 + 1);
+            case 3 -> "Container";
+            case 4 -> BigDecimal.valueOf(1000 + row, 2);
+            case 5 -> BigDecimal.valueOf(row % 40);
+            case 6 -> "t";
+            case 7 -> null;
+            case 8 -> "Row " + row + ", \"quoted\"";
+            default -> Timestamp.valueOf(LocalDateTime.of(2026, 1, 1, 0, 0).plusMinutes(row));
+        };
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(String method, Object[] args);
+    }
+
+    // Unhandled methods return null, or the primitive default so void/boolean/int JDBC calls are no-ops
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (self, method, args) -> {
+            Object result = handler.handle(method.getName(), args);
+            if (result != null || !method.getReturnType().isPrimitive() || method.getReturnType() == void.class) {
+                return result;
+            }
+            if (method.getReturnType() == boolean.class) {
+                return false;
+            }
+            if (method.getReturnType() == long.class) {
+                return 0L;
+            }
+            return 0;
+        });
+    }
+
+    // Discards the export, counting lines and writes and sampling the retained heap every 256 KB
+    private static final class SamplingOutputStream extends OutputStream {
+        private static final long SAMPLE_EVERY_BYTES = 256 * 1024;
+
+        private final HeapSampler heap = new HeapSampler();
+        private long written;
+        private long writtenAtCursorEnd;
+        private long writes;
+        private int maxWrite;
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                if (bytes[i] == '\n') {
+                    lines++;
+                }
+            }
+            if ((written + length) / SAMPLE_EVERY_BYTES != written / SAMPLE_EVERY_BYTES) {
+                heap.sample();
+            }
+            written += length;
+            writes++;
+            maxWrite = Math.max(maxWrite, length);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.cargomanagement.service;
+
+import com.cargomanagement.models.ActivityLog;
+import com.cargomanagement.models.Cargo;
+import com.cargomanagement.models.ImportJob;
+import com.cargomanagement.repository.ActivityLogRepository;
+import com.cargomanagement.repository.CargoRepository;
+import com.cargomanagement.repository.ImportJobRepository;
+import com.cargomanagement.repository.RouteRepository;
+import com.cargomanagement.repository.ShipmentRepository;
+import com.cargomanagement.repository.VendorRepository;
+import com.cargomanagement.support.HeapSampler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Constant-heap check for the streaming manifest import. A generated CSV, never held in memory as a whole, runs
+ * through the real parser, validation and chunked bulk writer with the database mocked out. Streaming is pinned down
+ * exactly: every save holds at most bulk.chunk-size records and the file is written in one save per chunk as it is
+ * read. The retained heap, sampled every few chunks, is logged and checked with a wide margin; buffering the records
+ * would add hundreds of bytes per row. Over-length and invalid rows are mixed in to check they are
+ * skipped and counted without stopping the stream, and a chunk the database rolls back is checked to stop the run
+ * without counting past it. -Dbenchmark.records raises the large run.
+ */
+class ManifestImportHeapTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ManifestImportHeapTest.class);
+    private static final int SMALL = 10_000;
+    private static final int LARGE = Integer.getInteger("benchmark.records", 200_000);
+    private static final int CHUNK_SIZE = 500;
+    private static final int MAX_RECORD_LENGTH = 256;
+    private static final int SAMPLE_EVERY_CHUNKS = 20;
+    private static final long ALLOWED_GROWTH = 16L * 1024 * 1024;
+
+    private final HeapSampler heap = new HeapSampler();
+    private int chunks;
+    private int largestChunk;
+    private int failingChunk;
+
+    @Test
+    void heapStaysFlatAsTheManifestGrows() {
+        ImportJob small = importRows(SMALL);
+        long smallPeak = heap.peak();
+        ImportJob large = importRows(LARGE);
+        long largePeak = heap.peak();
+
+        assertCounts(small, SMALL);
+        assertCounts(large, LARGE);
+        // Every chunk consumes CHUNK_SIZE records, of which only the valid ones are saved
+        assertThat(chunks).isEqualTo((LARGE + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        assertThat(largestChunk).isLessThanOrEqualTo(CHUNK_SIZE);
+        log.info("Peak retained heap: {} KB importing {} records, {} KB importing {}",
+                 smallPeak / 1024, SMALL, largePeak / 1024, LARGE);
+        assertThat(largePeak - smallPeak).isLessThan(ALLOWED_GROWTH);
+    }
+
+    @Test
+    void rolledBackChunkStopsTheRunAtItsFirstRecord() {
+        failingChunk = 3;
+        ImportJob job = importRows(SMALL);
+
+        // Chunks 1 and 2 committed (rows 0 and 500 rejected); chunk 3 and everything after it is left for a resume
+        assertThat(job.getStatus()).isEqualTo(ImportJob.INTERRUPTED);
+        assertThat(job.getRecordsRead()).isEqualTo(2L * CHUNK_SIZE);
+        assertThat(job.getCreated()).isEqualTo(2L * CHUNK_SIZE - 2);
+        assertThat(job.getRejected()).isEqualTo(2);
+        assertThat(job.getLastError()).contains("Records 1001-1500 were not written", "connection reset");
+    }
+
+    // Every 1000th row is longer than import.max-record-length, every 1000th + 500 has no type
+    private void assertCounts(ImportJob job, int rows) {
+        long malformed = (rows + 999) / 1000;
+        long invalid = (rows + 499) / 1000;
+        assertThat(job.getStatus()).isEqualTo(ImportJob.COMPLETED);
+        assertThat(job.getRecordsRead()).isEqualTo(rows);
+        assertThat(job.getRejected()).isEqualTo(malformed + invalid);
+        assertThat(job.getCreated()).isEqualTo(rows - malformed - invalid);
+        assertThat(job.getErrorSample().lines().count()).isLessThanOrEqualTo(100);
+    }
+
+    // Spreadsheet exports start with a byte order mark, which must not end up in the first field name
+    @Test
+    void byteOrderMarkIsNotPartOfTheFirstField() {
+        ImportJob csv = importStream(ManifestImportService.CSV,
+                "\uFEFFtype,weight,weightUnit,value\nContainer,20,t,1000\nPallet,2,t,80\n");
+        ImportJob ndjson = importStream(ManifestImportService.NDJSON,
+                "\uFEFF{\"type\":\"Container\",\"weight\":20,\"weightUnit\":\"t\",\"value\":1000}\n");
+
+        assertThat(csv.getCreated()).as(csv.getErrorSample()).isEqualTo(2);
+        assertThat(ndjson.getCreated()).as(ndjson.getErrorSample()).isEqualTo(1);
+    }
+
+    private ImportJob importRows(int rows) {
+        return importStream(ManifestImportService.CSV, new ManifestStream(rows));
+    }
+
+    private ImportJob importStream(String format, String body) {
+        return importStream(format, new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private ImportJob importStream(String format, InputStream body) {
+        heap.reset();
+        chunks = 0;
+        largestChunk = 0;
+        ManifestImportService service = new ManifestImportService(bulkCreateService(), importJobRepository(),
+                stub(NotificationService.class), new ObjectMapper().findAndRegisterModules(), transactionManager(),
+                MAX_RECORD_LENGTH, 100, 300_000);
+        return service.importStream(ActivityLog.CARGO, format, "manifest", null, body);
+    }
+
+    // Saved chunks are sampled, not kept: the mocks record no invocations, so they retain nothing themselves
+    private BulkCreateService bulkCreateService() {
+        CargoRepository cargoRepository = stub(CargoRepository.class);
+        when(cargoRepository.saveAll(any())).thenAnswer(invocation -> {
+            if (++chunks == failingChunk) {
+                throw new DataAccessResourceFailureException("connection reset");
+            }
+            largestChunk = Math.max(largestChunk, ((Collection<?>) invocation.getArgument(0)).size());
+            if (chunks % SAMPLE_EVERY_CHUNKS == 0) {
+                heap.sample();
+            }
+            return invocation.getArgument(0);
+        });
+        return new BulkCreateService(cargoRepository, stub(ShipmentRepository.class), stub(RouteRepository.class),
+                stub(VendorRepository.class), stub(KafkaProducerService.class), stub(NotificationService.class),
+                dashboardMetricsService(), activityLogService(),
+                Validation.buildDefaultValidatorFactory().getValidator(), stub(EntityManager.class),
+                transactionManager(), CHUNK_SIZE, CHUNK_SIZE);
+    }
+
+    // Real counters and a no-op activity log: mocks called once per row would dominate the run time
+    private DashboardMetricsService dashboardMetricsService() {
+        return new DashboardMetricsService(stub(ShipmentRepository.class), stub(CargoRepository.class),
+                                           stub(RouteRepository.class), stub(VendorRepository.class));
+    }
+
+    private ActivityLogService activityLogService() {
+        return new ActivityLogService(stub(ActivityLogRepository.class), transactionManager()) {
+            @Override
+            public void recordCargo(Cargo cargo, String action) {
+            }
+        };
+    }
+
+    private ImportJobRepository importJobRepository() {
+        ImportJobRepository repository = stub(ImportJobRepository.class);
+        ImportJob[] stored = new ImportJob[1];
+        when(repository.save(any())).thenAnswer(invocation -> stored[0] = invocation.getArgument(0));
+        when(repository.lockById(any())).thenAnswer(invocation -> Optional.ofNullable(stored[0]));
+        return repository;
+    }
+
+    private PlatformTransactionManager transactionManager() {
+        PlatformTransactionManager transactionManager = stub(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        return transactionManager;
+    }
+
+    private static <T> T stub(Class<T> type) {
+        return mock(type, withSettings().stubOnly());
+    }
+
+    // CSV generated row by row as it is read
+    private static final class ManifestStream extends InputStream {
+        private static final String LONG_DESCRIPTION = "x".repeat(MAX_RECORD_LENGTH);
+
+        private final int rows;
+        private int row = -1;  // -1 = header
+        private byte[] line = new byte[0];
+        private int position;
+
+        ManifestStream(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int read() {
+            if (position == line.length) {
+                if (row >= rows) {
+                    return -1;
+                }
+                line = nextLine().getBytes(StandardCharsets.UTF_8);
+                position = 0;
+            }
+            return line[position++] & 0xFF;
+        }
+
+        private String nextLine() {
+            int current = row++;
+            if (current < 0) {
+                return "type,weight,weightUnit,value,description\n";
+            }
+            if (current % 1000 == 0) {
+                return "Container,20,t,1000," + LONG_DESCRIPTION + "\n";
+            }
+            if (current % 1000 == 500) {
+                return ",20,t,1000,No type\n";
+            }
+            return "Container," + (current % 40) + ",t," + (1000 + current) + ",Row " + current + "\n";
+        }
+    }
+}
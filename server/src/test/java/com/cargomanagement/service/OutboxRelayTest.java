@@ -0,0 +1,103 @@
+package com.cargomanagement.service;
+
+import com.cargomanagement.models.OutboxEvent;
+import com.cargomanagement.repository.OutboxEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Per-key ordering of the outbox relay: a row must not reach Kafka before the previous row of its key has been
+ * acknowledged, so a failure can never leave a later event delivered ahead of an earlier one, or sent twice.
+ */
+class OutboxRelayTest {
+
+    private final OutboxEventRepository repository = mock(OutboxEventRepository.class);
+    private final KafkaProducerService producer = mock(KafkaProducerService.class);
+    private final List<String> sent = new ArrayList<>();
+    private final List<Long> deleted = new ArrayList<>();
+    private final List<OutboxEvent> saved = new ArrayList<>();
+
+    @Test
+    void rowsBehindAFailedRowOfTheSameKeyAreNotSent() {
+        OutboxEvent first = row(1, "42", "first");
+        OutboxEvent second = row(2, "42", "second");
+        OutboxEvent other = row(3, "7", "other");
+        when(repository.lockOldest(any(), anyInt())).thenReturn(List.of(first, second, other), List.of());
+        when(producer.sendMessage(anyString(), anyString(), anyString())).thenAnswer(invocation -> {
+            String payload = invocation.getArgument(2);
+            sent.add(payload);
+            return "first".equals(payload)
+                ? CompletableFuture.failedFuture(new IllegalStateException("broker unavailable"))
+                : CompletableFuture.completedFuture(null);
+        });
+
+        assertThat(relay().relay()).isEqualTo(1);
+
+        assertThat(sent).containsExactly("first", "other");
+        assertThat(deleted).containsExactly(3L);
+        assertThat(saved).containsExactlyInAnyOrder(first, second);
+        assertThat(first.getAttempts()).isEqualTo(1);
+        assertThat(first.getLastError()).isEqualTo("broker unavailable");
+        assertThat(second.getAttempts()).isZero();
+    }
+
+    @Test
+    void eachRowOfAKeyIsSentAfterThePreviousOneIsAcknowledged() {
+        List<CompletableFuture<Object>> futures = new ArrayList<>();
+        when(repository.lockOldest(any(), anyInt()))
+            .thenReturn(List.of(row(1, "42", "a"), row(2, "42", "b"), row(3, "42", "c")), List.of());
+        when(producer.sendMessage(anyString(), anyString(), anyString())).thenAnswer(invocation -> {
+            // Every earlier send of the key must be complete before the next one starts
+            assertThat(futures).allMatch(CompletableFuture::isDone);
+            sent.add(invocation.getArgument(2));
+            // Acknowledged a little later, as the broker would
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            future.completeAsync(() -> null, CompletableFuture.delayedExecutor(20, TimeUnit.MILLISECONDS));
+            futures.add(future);
+            return future;
+        });
+
+        assertThat(relay().relay()).isEqualTo(3);
+
+        assertThat(sent).containsExactly("a", "b", "c");
+        assertThat(deleted).containsExactly(1L, 2L, 3L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private OutboxRelay relay() {
+        when(repository.deleteAllByIdIn(any())).thenAnswer(invocation -> {
+            deleted.addAll(invocation.getArgument(0));
+            return deleted.size();
+        });
+        when(repository.saveAll(any())).thenAnswer(invocation -> {
+            ((Iterable<OutboxEvent>) invocation.getArgument(0)).forEach(saved::add);
+            return invocation.getArgument(0);
+        });
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        return new OutboxRelay(repository, producer, new TransactionTemplate(transactionManager), 200, 1_000, 10, 1_000);
+    }
+
+    private static OutboxEvent row(long id, String key, String payload) {
+        OutboxEvent row = new OutboxEvent();
+        row.setOutboxId(id);
+        row.setTopic("shipment-events");
+        row.setEventKey(key);
+        row.setPayload(payload);
+        return row;
+    }
+}
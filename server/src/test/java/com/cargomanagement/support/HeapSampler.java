@@ -0,0 +1,50 @@
+package com.cargomanagement.support;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+
+/**
+ * Peak retained heap over a run, for the constant-heap checks of the streaming import and export. Each sample is
+ * the heap left after a collection: System.gc() followed by the used heap where explicit GC works, or, when the JVM
+ * runs with -XX:+DisableExplicitGC (System.gc() is then a no-op), the usage the heap pools recorded after their last
+ * real collection. Either way it is an approximation, so tests assert a wide margin on it and pin the streaming
+ * behaviour itself with exact counts.
+ */
+public class HeapSampler {
+
+    private static final boolean EXPLICIT_GC_DISABLED = ManagementFactory.getRuntimeMXBean().getInputArguments()
+        .contains("-XX:+DisableExplicitGC");
+
+    private long peak;
+
+    public void reset() {
+        peak = 0;
+    }
+
+    public long peak() {
+        return peak;
+    }
+
+    public void sample() {
+        peak = Math.max(peak, EXPLICIT_GC_DISABLED ? usedAfterLastCollection() : usedAfterGc());
+    }
+
+    private static long usedAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long usedAfterLastCollection() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage usage = pool.getType() == MemoryType.HEAP ? pool.getCollectionUsage() : null;
+            if (usage != null) {
+                used += usage.getUsed();
+            }
+        }
+        return used;
+    }
+}
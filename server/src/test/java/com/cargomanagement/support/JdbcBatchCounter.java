@@ -0,0 +1,38 @@
+package com.cargomanagement.support;
+
+import org.hibernate.SessionEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts JDBC batch executions and single statement executions across all sessions. Registered with
+ * hibernate.session.events.auto, which attaches one instance to every session Hibernate opens.
+ */
+public class JdbcBatchCounter implements SessionEventListener {
+
+    private static final AtomicLong BATCHES = new AtomicLong();
+    private static final AtomicLong STATEMENTS = new AtomicLong();
+
+    public static void reset() {
+        BATCHES.set(0);
+        STATEMENTS.set(0);
+    }
+
+    public static long batches() {
+        return BATCHES.get();
+    }
+
+    public static long statements() {
+        return STATEMENTS.get();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        BATCHES.incrementAndGet();
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        STATEMENTS.incrementAndGet();
+    }
+}
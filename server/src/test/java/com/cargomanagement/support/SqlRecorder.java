@@ -0,0 +1,29 @@
+package com.cargomanagement.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records the SQL of every statement Hibernate prepares, as generated with ? parameter markers. Registered with
+ * hibernate.session_factory.statement_inspector so a test can inspect the statements a repository method issues.
+ */
+public class SqlRecorder implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    public static void reset() {
+        STATEMENTS.clear();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(STATEMENTS);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+}